@@ -0,0 +1,56 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Measures how deep and how fast the alpha-beta search gets with more threads
+
+package Benchmarks;
+
+import Board.Board;
+import Strategies.AlphaBetaStrategy;
+
+public class AlphaBetaScalingBenchmark {
+
+    private static final int POSITIONS = 8;
+    private static final long BUDGET_MILLIS = 1000;
+
+    /**
+     * Usage: AlphaBetaScalingBenchmark [maxThreads [budgetMillis]]
+     * Searches the same opening positions with 1 to maxThreads threads and prints the mean depth
+     * the first thread completed and the nodes per second over all threads.
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : BUDGET_MILLIS;
+
+        Board[] positions = new Board[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Board();
+            positions[i].initBoard(i + 1);
+        }
+
+        //warm up the JIT on one thread
+        new AlphaBetaStrategy(budget, 1, AlphaBetaStrategy.DEFAULT_TABLE_BITS).determineSingleMove(positions[0]);
+
+        System.out.printf("%d available processors, %d ms per move%n",
+                Runtime.getRuntime().availableProcessors(), budget);
+        System.out.println("threads  mean depth         nodes/s  speed-up");
+        double base = 0;
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            AlphaBetaStrategy strategy = new AlphaBetaStrategy(budget, threads, AlphaBetaStrategy.DEFAULT_TABLE_BITS);
+            long nodes = 0;
+            int depth = 0;
+            for (Board position : positions) {
+                strategy.determineSingleMove(position);
+                nodes += strategy.getNodes();
+                depth += strategy.getCompletedDepth();
+            }
+            double rate = nodes * 1000.0 / (budget * POSITIONS);
+            if (threads == 1) {
+                base = rate;
+            }
+            System.out.printf("%7d %11.2f %15.0f %8.2fx%n", threads, (double) depth / POSITIONS, rate, rate / base);
+        }
+    }
+}
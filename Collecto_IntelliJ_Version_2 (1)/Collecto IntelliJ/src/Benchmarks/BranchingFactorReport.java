@@ -0,0 +1,45 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Reports how many double moves lead to distinct boards
+
+package Benchmarks;
+
+import Board.Board;
+import Board.DoubleMoveClasses;
+
+import java.util.List;
+
+public class BranchingFactorReport {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        List<Board> positions = GameOverBenchmark.endGamePositions(games);
+
+        int sampled = 0;
+        long pairs = 0;
+        long distinct = 0;
+        int maxPairs = 0;
+        int maxDistinct = 0;
+        for (Board position : positions) {
+            DoubleMoveClasses classes = position.doubleMoveClasses();
+            if (classes.moves() == 0) {
+                continue;
+            }
+            sampled++;
+            pairs += classes.moves();
+            distinct += classes.size();
+            maxPairs = Math.max(maxPairs, classes.moves());
+            maxDistinct = Math.max(maxDistinct, classes.size());
+        }
+
+        System.out.println(sampled + " positions with double moves out of " + games + " random games");
+        if (sampled > 0) {
+            System.out.printf("double moves per position: mean %.2f, max %d%n", (double) pairs / sampled, maxPairs);
+            System.out.printf("distinct boards per position: mean %.2f, max %d%n", (double) distinct / sampled, maxDistinct);
+            System.out.printf("branching factor reduced by %.1f%%%n", 100.0 * (pairs - distinct) / pairs);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Measures how long exact endgame solves take by the amount of balls left
+
+package Benchmarks;
+
+import Board.Board;
+import Board.MoveSets;
+import Strategies.EndgameSolver;
+import Strategies.NaiveStrategy;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class EndgameBenchmark {
+
+    private static final int GAMES = 20;
+
+    /**
+     * Usage: EndgameBenchmark [maxTiles]
+     * Plays random games down to 8, 10, ... maxTiles balls and prints the solve time and nodes per
+     * ball count, to pick the threshold of EndgameSolver for a machine.
+     */
+    public static void main(String[] args) {
+        int maxTiles = args.length > 0 ? Integer.parseInt(args[0]) : EndgameSolver.DEFAULT_THRESHOLD + 2;
+
+        //warm up the JIT
+        run(12);
+
+        System.out.println("tiles  solves  median us     max us  mean nodes");
+        for (int tiles = 8; tiles <= maxTiles; tiles += 2) {
+            System.out.println(run(tiles));
+        }
+    }
+
+    /**
+     * This method solves one position with at most the given amount of balls from every game,
+     * with a new table per position.
+     *
+     * @param tiles the amount of balls to play down to
+     * @return a line with the amount of solves, the median and max solve time and the mean nodes
+     */
+
+    public static String run(int tiles) {
+        Random random = new Random(tiles);
+        long[] micros = new long[GAMES];
+        long nodes = 0;
+        int solves = 0;
+        for (int game = 0; game < GAMES; game++) {
+            Board board = new Board();
+            board.initBoard(game + 1);
+            int[] turns = board.legalTurns();
+            while (board.tileCount() > tiles && turns.length > 0) {
+                int turn = turns[random.nextInt(turns.length)];
+                if (MoveSets.isPair(turn)) {
+                    board.moveLine(MoveSets.first(turn));
+                    board.moveLine(MoveSets.second(turn));
+                } else {
+                    board.moveLine(turn);
+                }
+                board.removeBalls();
+                turns = board.legalTurns();
+            }
+            if (turns.length == 0) {
+                continue;
+            }
+            EndgameSolver solver = new EndgameSolver(new NaiveStrategy(), tiles, EndgameSolver.DEFAULT_TABLE_BITS);
+            solver.solve(board);
+            micros[solves++] = solver.getSolveMicros();
+            nodes += solver.getNodes();
+        }
+        if (solves == 0) {
+            return String.format("%5d %7d", tiles, 0);
+        }
+        long[] sorted = Arrays.copyOf(micros, solves);
+        Arrays.sort(sorted);
+        return String.format("%5d %7d %10d %10d %11d",
+                tiles, solves, sorted[solves / 2], sorted[solves - 1], nodes / solves);
+    }
+}
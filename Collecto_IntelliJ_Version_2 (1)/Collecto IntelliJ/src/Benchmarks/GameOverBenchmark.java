@@ -0,0 +1,177 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Measures how long the game over check takes on end-game positions
+
+package Benchmarks;
+
+import Board.Board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GameOverBenchmark {
+
+    private static final int GAMES = 200;
+    private static final int ROUNDS = 5;
+
+    /**
+     * This method plays random games and keeps every position in which no single move is left,
+     * which are the positions where the game over check has to look at double moves.
+     *
+     * @param games the amount of games to play
+     * @return the collected positions
+     */
+
+    public static List<Board> endGamePositions(int games) {
+        List<Board> positions = new ArrayList<>();
+        for (int game = 0; game < games; game++) {
+            Board board = new Board();
+            board.initBoard();
+            while (true) {
+                if (board.singleMovePossible()) {
+                    List<Integer> moves = board.singleMovesList();
+                    board.moveLine(moves.get((int) (Math.random() * moves.size())));
+                } else {
+                    positions.add(board.deepCopy());
+                    List<Integer[]> moves = board.doubleMovesList();
+                    if (moves.isEmpty()) {
+                        break;
+                    }
+                    Integer[] move = moves.get((int) (Math.random() * moves.size()));
+                    board.moveLine(move[0]);
+                    board.moveLine(move[1]);
+                }
+                board.removeBalls();
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * The checks that are timed: the short-circuit check, the full single and double move sets of the
+     * bit board engine, and the move lists with deep copies the game over check used to build.
+     */
+    public static final int SHORT_CIRCUIT = 0;
+    public static final int FULL_SETS = 1;
+    public static final int LIST_BASED = 2;
+
+    /**
+     * This method times one check per position on a fresh copy, so no cached moves are reused.
+     * Every result is compared to the list based check, a disagreement either way is an error.
+     *
+     * @param positions the positions to check
+     * @param check     SHORT_CIRCUIT, FULL_SETS or LIST_BASED
+     * @return the sorted time of every check in nanoseconds
+     */
+
+    public static long[] measure(List<Board> positions, int check) {
+        long[] times = new long[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            Board copy = positions.get(i).deepCopy();
+            long start = System.nanoTime();
+            boolean over;
+            if (check == SHORT_CIRCUIT) {
+                over = copy.gameOver();
+            } else if (check == FULL_SETS) {
+                over = !copy.singleMovePossible() && !copy.doubleMovePossible();
+            } else {
+                over = listBasedGameOver(copy);
+            }
+            times[i] = System.nanoTime() - start;
+            if (over != listBasedGameOver(positions.get(i).deepCopy())) {
+                throw new IllegalStateException("game over check " + check + " disagrees with the move lists");
+            }
+        }
+        Arrays.sort(times);
+        return times;
+    }
+
+    /**
+     * This method checks for the end of the game the way the board did before the bit board engine:
+     * it builds the lists of all single and double moves, trying every move on a deep copy.
+     *
+     * @param board the position, left as it was
+     * @return True if there are no single and no double moves
+     */
+
+    public static boolean listBasedGameOver(Board board) {
+        return singleMovesList(board).isEmpty() && doubleMovesList(board).isEmpty();
+    }
+
+    private static boolean singleMoveValid(Board board, int move) {
+        if (board.possibleMovements().contains(move)) {
+            Board copy = board.deepCopy();
+            copy.moveLine(move);
+            return copy.adjacentBallsPresent();
+        }
+        return false;
+    }
+
+    private static List<Integer> singleMovesList(Board board) {
+        List<Integer> moves = new ArrayList<>();
+        for (int move : board.possibleMovements()) {
+            if (singleMoveValid(board, move)) {
+                moves.add(move);
+            }
+        }
+        return moves;
+    }
+
+    private static List<Integer[]> doubleMovesList(Board board) {
+        List<Integer[]> moves = new ArrayList<>();
+        for (int first : board.possibleMovements()) {
+            for (int second = 0; second < Board.DIM * 4; second++) {
+                //the single moves were listed again for every pair
+                if (board.possibleMovements().contains(first) && singleMovesList(board).isEmpty()) {
+                    Board copy = board.deepCopy();
+                    copy.moveLine(first);
+                    if (singleMoveValid(copy, second)) {
+                        moves.add(new Integer[] {first, second});
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static String report(String name, long[] times) {
+        long sum = 0;
+        for (long time : times) {
+            sum += time;
+        }
+        return String.format("%-14s mean %8.1f us   p99 %8.1f us   max %8.1f us", name,
+                sum / 1000.0 / times.length,
+                times[(int) (times.length * 0.99)] / 1000.0,
+                times[times.length - 1] / 1000.0);
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : GAMES;
+        List<Board> positions = endGamePositions(games);
+        int finished = 0;
+        for (Board position : positions) {
+            if (position.doubleMovesList().isEmpty()) {
+                finished++;
+            }
+        }
+        System.out.println(positions.size() + " positions without single moves, "
+                + finished + " of them game over");
+
+        //the first rounds warm up the JIT, only the last one is reported
+        long[] shortCircuit = null;
+        long[] full = null;
+        long[] listBased = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            shortCircuit = measure(positions, SHORT_CIRCUIT);
+            full = measure(positions, FULL_SETS);
+            listBased = measure(positions, LIST_BASED);
+        }
+        System.out.println(report("short circuit", shortCircuit));
+        System.out.println(report("full sets", full));
+        System.out.println(report("list based", listBased));
+    }
+}
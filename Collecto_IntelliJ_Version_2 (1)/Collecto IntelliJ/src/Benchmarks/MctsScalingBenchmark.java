@@ -0,0 +1,72 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Measures how the MCTS playout rate grows with the amount of search threads
+
+package Benchmarks;
+
+import Board.Board;
+import Strategies.MctsStrategy;
+
+public class MctsScalingBenchmark {
+
+    private static final int POSITIONS = 8;
+    private static final long BUDGET_MILLIS = 500;
+
+    /**
+     * Usage: MctsScalingBenchmark [maxThreads [budgetMillis]]
+     * Searches the same opening positions with 1 to maxThreads threads in both modes and prints the
+     * playouts per second over all threads and the speed-up against one thread.
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : BUDGET_MILLIS;
+
+        Board[] positions = new Board[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Board();
+            positions[i].initBoard(i + 1);
+        }
+
+        //warm up the JIT on one thread
+        measure(positions, 1, MctsStrategy.TREE_PARALLEL, budget);
+
+        System.out.printf("%d available processors, %d ms per move%n",
+                Runtime.getRuntime().availableProcessors(), budget);
+        System.out.println("threads      root playouts/s  speed-up      tree playouts/s  speed-up");
+        double rootBase = 0;
+        double treeBase = 0;
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            double root = measure(positions, threads, MctsStrategy.ROOT_PARALLEL, budget);
+            double tree = measure(positions, threads, MctsStrategy.TREE_PARALLEL, budget);
+            if (threads == 1) {
+                rootBase = root;
+                treeBase = tree;
+            }
+            System.out.printf("%7d %20.0f %8.2fx %20.0f %8.2fx%n",
+                    threads, root, root / rootBase, tree, tree / treeBase);
+        }
+    }
+
+    /**
+     * This method searches one move on every position and returns the mean playout rate.
+     *
+     * @param positions the positions to search
+     * @param threads   the amount of search threads
+     * @param mode      MctsStrategy.ROOT_PARALLEL or MctsStrategy.TREE_PARALLEL
+     * @param budget    the time per move in milliseconds
+     * @return the playouts per second over all threads
+     */
+
+    public static double measure(Board[] positions, int threads, int mode, long budget) {
+        MctsStrategy strategy = new MctsStrategy(budget, threads, mode, 1);
+        double sum = 0;
+        for (Board position : positions) {
+            strategy.determineSingleMove(position);
+            sum += strategy.getPlayoutsPerSecond();
+        }
+        return sum / positions.length;
+    }
+}
@@ -0,0 +1,67 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Counts the nodes an alpha-beta search needs with and without move ordering
+
+package Benchmarks;
+
+import Board.Board;
+import Strategies.AlphaBetaStrategy;
+
+public class MoveOrderingReport {
+
+    private static final int POSITIONS = 12;
+    private static final int DEPTH = 8;
+
+    /**
+     * An hour, the searches stop at the depth long before.
+     */
+    private static final long BUDGET_MILLIS = 3_600_000L;
+
+    /**
+     * Usage: MoveOrderingReport [depth]
+     * Searches the opening positions of seeds 1 to 12 to a fixed depth on one thread, once in the
+     * order of Board.legalTurns and once with MoveOrdering, and prints the nodes of both.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEPTH;
+
+        System.out.println("seed    unordered      ordered  reduction");
+        long unorderedTotal = 0;
+        long orderedTotal = 0;
+        for (int seed = 1; seed <= POSITIONS; seed++) {
+            Board board = new Board();
+            board.initBoard(seed);
+            long unordered = nodes(board, depth, false);
+            long ordered = nodes(board, depth, true);
+            unorderedTotal += unordered;
+            orderedTotal += ordered;
+            System.out.printf("%4d %12d %12d %9.1f%%%n", seed, unordered, ordered, reduction(unordered, ordered));
+        }
+        System.out.printf("all  %12d %12d %9.1f%%%n",
+                unorderedTotal, orderedTotal, reduction(unorderedTotal, orderedTotal));
+    }
+
+    /**
+     * This method searches a position to a fixed depth with a new strategy and returns the nodes.
+     *
+     * @param board    the position
+     * @param depth    the depth in turns
+     * @param ordering True to use MoveOrdering below the root
+     * @return the node count
+     */
+
+    public static long nodes(Board board, int depth, boolean ordering) {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(BUDGET_MILLIS, 1, AlphaBetaStrategy.DEFAULT_TABLE_BITS);
+        strategy.setMaxDepth(depth);
+        strategy.setMoveOrdering(ordering);
+        strategy.determineSingleMove(board);
+        return strategy.getNodes();
+    }
+
+    private static double reduction(long unordered, long ordered) {
+        return 100.0 * (unordered - ordered) / unordered;
+    }
+}
@@ -0,0 +1,43 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Measures how fast boards meeting quality targets are found
+
+package Benchmarks;
+
+import Board.Board;
+import Board.BoardQuality;
+import Board.QualityBands;
+import Board.QualityBoardGenerator;
+
+import java.util.List;
+
+public class QualityGeneratorBenchmark {
+
+    /**
+     * Usage: QualityGeneratorBenchmark [count [minSingles maxSingles minBranching maxBranching minScore maxScore]]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        QualityBands bands = args.length >= 7
+                ? new QualityBands(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                Integer.parseInt(args[5]), Integer.parseInt(args[6]))
+                : new QualityBands(2, 4, 2, 4, 3, 4);
+
+        QualityBoardGenerator generator = new QualityBoardGenerator(bands);
+        //the first call warms up the JIT
+        generator.generate(count, 10L * QualityBoardGenerator.ROUND);
+
+        generator = new QualityBoardGenerator(bands);
+        List<Board> boards = generator.generate(count, 1000L * QualityBoardGenerator.ROUND);
+        System.out.printf("%d boards accepted out of %d candidates, %.0f candidates/s on %d cores%n",
+                boards.size(), generator.getScreened(), generator.getCandidatesPerSecond(),
+                Runtime.getRuntime().availableProcessors());
+        if (!boards.isEmpty()) {
+            System.out.println("first: seed " + boards.get(0).getSeed() + ", " + BoardQuality.of(boards.get(0)));
+        }
+    }
+}
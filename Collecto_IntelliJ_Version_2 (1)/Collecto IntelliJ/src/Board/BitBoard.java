@@ -0,0 +1,543 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class defines the packed bitboard representation behind the Board facade
+
+package Board;
+
+public class BitBoard {
+
+    public static final int DIM = Board.DIM;
+    public static final int CELLS = DIM * DIM;
+    public static final int COLORS = Board.TILES.length;
+
+    /**
+     * Every cell is stored as a 3 bit color (0 is empty, 1-6 are the TILES).
+     * A row of DIM cells takes exactly 21 bits, so three rows fit in one long.
+     */
+    public static final int CELL_BITS = 3;
+    public static final int CELLS_PER_WORD = 3 * DIM;
+    private static final int ROWS_PER_WORD = CELLS_PER_WORD / DIM;
+    public static final int LINE_BITS = CELL_BITS * DIM;
+    public static final int LINE_MASK = (1 << LINE_BITS) - 1;
+    public static final int WORDS = (CELLS + CELLS_PER_WORD - 1) / CELLS_PER_WORD;
+
+    /**
+     * The bit masks are indexed by cell = DIM * y + x, the same order as Board.rowBoard.
+     */
+    public static final long BOARD_MASK = (1L << CELLS) - 1;
+    public static final long[] ROW_MASKS = new long[DIM];
+    public static final long[] COLUMN_MASKS = new long[DIM];
+    public static final long NOT_LAST_COLUMN;
+
+    /**
+     * SPREAD[b] turns the 7 bits of b into 7 cells of 3 set bits each, used to clear
+     * a whole mask of cells in the packed words at once.
+     */
+    private static final int[] SPREAD = new int[1 << DIM];
+
+    /**
+     * A 1 in the lowest bit of every cell of a word, multiplying it by a color fills every cell with that color.
+     */
+    private static final long REPEAT_CELL = 0x1249249249249249L;
+
+    /**
+     * A 1 in the lowest bit of every cell of a packed line, and the same without the last cell.
+     */
+    private static final int LINE_LOW_BITS = 0x49249;
+    private static final int LINE_LOW_BITS_BUT_LAST = LINE_LOW_BITS & ~(1 << (LINE_BITS - CELL_BITS));
+
+    /**
+     * The Zobrist key of every color in every cell, indexed CELLS * color + cell. The keys of color 0
+     * are 0, so an empty board hashes to 0. The keys come from a fixed seed, so every board in every
+     * JVM (client and server alike) gives the same position the same hash.
+     */
+    private static final long[] KEYS = new long[(COLORS + 1) * CELLS];
+    private static final long KEY_SEED = 0x436F6C6C6563746FL;
+
+    static {
+        for (int i = 0; i < DIM; i++) {
+            ROW_MASKS[i] = ((1L << DIM) - 1) << (DIM * i);
+            for (int j = 0; j < DIM; j++) {
+                COLUMN_MASKS[i] |= 1L << (DIM * j + i);
+            }
+        }
+        NOT_LAST_COLUMN = BOARD_MASK & ~COLUMN_MASKS[DIM - 1];
+
+        for (int b = 0; b < SPREAD.length; b++) {
+            for (int k = 0; k < DIM; k++) {
+                if ((b & (1 << k)) != 0) {
+                    SPREAD[b] |= 7 << (CELL_BITS * k);
+                }
+            }
+        }
+
+        SplitMix64 random = new SplitMix64(KEY_SEED);
+        for (int i = CELLS; i < KEYS.length; i++) {
+            KEYS[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * The packed cells, 21 per word, and one occupancy mask per color.
+     *
+     * @invariant cell i of colorMasks[c] is set if and only if the packed cell i equals c + 1
+     * @invariant occupied is the union of all colorMasks
+     */
+    private final long[] packed = new long[WORDS];
+    private final long[] colorMasks = new long[COLORS];
+    private long occupied;
+
+    /**
+     * The pairs of neighbouring balls with the same color, kept up to date by every change
+     * so that only the cells around a changed line have to be looked at again.
+     *
+     * @invariant bit i of horizontalPairs is set if and only if cells i and i + 1 are in the same row
+     * and hold the same color
+     * @invariant bit i of verticalPairs is set if and only if cells i and i + DIM hold the same color
+     */
+    private long horizontalPairs;
+    private long verticalPairs;
+
+    /**
+     * Every change of the tiles hands out a new version, undoing a move gives back the version
+     * the board had before it. A version therefore always stands for the same position.
+     */
+    private long version;
+    private long lastVersion;
+
+    /**
+     * The Zobrist hash of the position, updated together with the cells.
+     *
+     * @invariant hash is the XOR of KEYS[CELLS * get(i) + i] over all cells i
+     */
+    private long hash;
+
+    /**
+     * This method returns the color stored in a cell.
+     *
+     * @param cell between 0-48
+     * @return the color of the cell, 0 if empty
+     * @requires cell to be in range 0-48
+     */
+
+    public int get(int cell) {
+        return (int) (packed[cell / CELLS_PER_WORD] >>> (CELL_BITS * (cell % CELLS_PER_WORD))) & 7;
+    }
+
+    /**
+     * This method sets a cell to a new color, keeping the color masks in sync.
+     *
+     * @param cell  between 0-48
+     * @param color between 0-6
+     * @requires cell to be in range 0-48 and color to be in range 0-6
+     * @ensures get(cell) == color
+     */
+
+    public void set(int cell, int color) {
+        int word = cell / CELLS_PER_WORD;
+        int shift = CELL_BITS * (cell % CELLS_PER_WORD);
+        int old = (int) (packed[word] >>> shift) & 7;
+        if (old == color) {
+            return;
+        }
+        long bit = 1L << cell;
+        packed[word] = (packed[word] & ~(7L << shift)) | ((long) color << shift);
+        hash ^= KEYS[CELLS * old + cell] ^ KEYS[CELLS * color + cell];
+        if (old != 0) {
+            colorMasks[old - 1] &= ~bit;
+        }
+        if (color != 0) {
+            colorMasks[color - 1] |= bit;
+            occupied |= bit;
+            refreshPairs(bit, 1 << (color - 1));
+        } else {
+            occupied &= ~bit;
+            refreshPairs(bit, 0);
+        }
+        version = ++lastVersion;
+    }
+
+    /**
+     * This method returns the version of the current position.
+     *
+     * @return a number that only changes when the tiles change, and comes back when a move is undone
+     */
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * This method returns the Zobrist hash of the current position.
+     *
+     * @return a 64 bit hash that only depends on the colors of the cells
+     * @ensures two bitboards with the same cells return the same hash
+     */
+
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Returns the Zobrist key of a color in a cell, 0 for an empty cell.
+     */
+    static long key(int cell, int color) {
+        return KEYS[CELLS * color + cell];
+    }
+
+    /**
+     * This method checks whether another bitboard holds the same colors in every cell.
+     *
+     * @param other the bitboard to compare with
+     * @return True if every cell is equal
+     */
+
+    public boolean samePosition(BitBoard other) {
+        if (hash != other.hash) {
+            return false;
+        }
+        for (int w = 0; w < WORDS; w++) {
+            if (packed[w] != other.packed[w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method returns the mask of all occupied cells.
+     *
+     * @return a 49 bit mask of the occupied cells
+     */
+
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * This method returns the mask of all cells of one color.
+     *
+     * @param color between 1-6
+     * @return a 49 bit mask of the cells with that color
+     * @requires color to be in range 1-6
+     */
+
+    public long colorMask(int color) {
+        return colorMasks[color - 1];
+    }
+
+    /**
+     * This method returns the packed contents of the line of a command, 3 bits per cell,
+     * starting with the cell the tiles slide towards in the lowest bits.
+     *
+     * @param command between 0-27
+     * @return the 21 bit packed line
+     */
+
+    public int line(int command) {
+        if (CommandTable.isRow(command)) {
+            //a row lies in one word, from cell 0 to cell 6 of a left move
+            int index = CommandTable.line(command);
+            int row = (int) (packed[index / ROWS_PER_WORD] >>> (LINE_BITS * (index % ROWS_PER_WORD))) & LINE_MASK;
+            if (CommandTable.direction(command) == CommandTable.LEFT) {
+                return row;
+            }
+            int line = 0;
+            for (int k = 0; k < DIM; k++) {
+                line = (line << CELL_BITS) | ((row >>> (CELL_BITS * k)) & 7);
+            }
+            return line;
+        }
+        int line = 0;
+        for (int k = 0; k < DIM; k++) {
+            line |= get(CommandTable.cell(command, k)) << (CELL_BITS * k);
+        }
+        return line;
+    }
+
+    /**
+     * This method replaces the contents of the line of a command with a packed line in the
+     * order of line(command).
+     *
+     * @param command between 0-27
+     * @param line    the 21 bit packed line
+     * @ensures line(command) == line and the color masks of the line are rebuilt
+     */
+
+    public void setLine(int command, int line) {
+        long lineMask = CommandTable.lineMask(command);
+        for (int c = 0; c < COLORS; c++) {
+            colorMasks[c] &= ~lineMask;
+        }
+        occupied &= ~lineMask;
+        int colors = 0;
+        for (int k = 0; k < DIM; k++) {
+            int cell = CommandTable.cell(command, k);
+            int color = (line >>> (CELL_BITS * k)) & 7;
+            int word = cell / CELLS_PER_WORD;
+            int shift = CELL_BITS * (cell % CELLS_PER_WORD);
+            int old = (int) (packed[word] >>> shift) & 7;
+            hash ^= KEYS[CELLS * old + cell] ^ KEYS[CELLS * color + cell];
+            packed[word] = (packed[word] & ~(7L << shift)) | ((long) color << shift);
+            if (color != 0) {
+                long bit = 1L << cell;
+                colorMasks[color - 1] |= bit;
+                occupied |= bit;
+                colors |= 1 << (color - 1);
+            }
+        }
+        refreshPairs(lineMask, colors);
+        version = ++lastVersion;
+    }
+
+    /**
+     * Recomputes the pairs that contain a changed cell. Such a pair can only have the color of one
+     * of the changed cells, so only those colors are looked at.
+     *
+     * @param changed the cells that changed
+     * @param colors  bit c - 1 set for every color c the changed cells hold now
+     */
+    private void refreshPairs(long changed, int colors) {
+        long horizontal = (changed | (changed >>> 1)) & NOT_LAST_COLUMN;
+        long vertical = changed | (changed >>> DIM);
+        horizontalPairs &= ~horizontal;
+        verticalPairs &= ~vertical;
+        while (colors != 0) {
+            long m = colorMasks[Integer.numberOfTrailingZeros(colors)];
+            horizontalPairs |= m & (m >>> 1) & horizontal;
+            verticalPairs |= m & (m >>> DIM) & vertical;
+            colors &= colors - 1;
+        }
+    }
+
+    /**
+     * This method moves a line in the direction of the command. Commands follow Board:
+     * 0-6 move row left, 7-13 move row right, 14-20 move column up, 21-27 move column down.
+     *
+     * @param command between 0-27
+     * @return True if any tile changed place
+     * @requires command to be in range 0-27
+     */
+
+    public boolean moveLine(int command) {
+        int line = line(command);
+        int moved = CompactionTable.compact(line);
+        if (moved == line) {
+            return false;
+        }
+        setLine(command, moved);
+        return true;
+    }
+
+    /**
+     * This method checks whether moving the line of a command leaves adjacent balls on the board,
+     * without changing the board. Only the moved line and the two lines next to it are read:
+     * a new pair lies inside the moved line or between it and a neighbouring line, any other pair
+     * was already there and does not touch the line.
+     *
+     * @param command between 0-27
+     * @return True if adjacencyMask() would not be 0 after moveLine(command)
+     * @requires command to be in range 0-27
+     */
+
+    public boolean adjacentAfterMove(int command) {
+        long lineMask = CommandTable.lineMask(command);
+        long untouched = (horizontalPairs & ~(lineMask | (lineMask >>> 1)))
+                | (verticalPairs & ~(lineMask | (lineMask >>> DIM)));
+        if (untouched != 0) {
+            return true;
+        }
+        int line = line(command);
+        int moved = CompactionTable.compact(line);
+        if (moved == line) {
+            //nothing moves, so only the pairs touching the line count
+            return (horizontalPairs | verticalPairs) != 0;
+        }
+        int tiles = occupiedCells(moved);
+        //neighbouring cells inside the line
+        if ((~occupiedCells(moved ^ (moved >>> CELL_BITS)) & tiles & LINE_LOW_BITS_BUT_LAST) != 0) {
+            return true;
+        }
+        //cells next to the line, the commands of the same direction are ordered by line
+        int index = CommandTable.line(command);
+        if (index > 0 && (~occupiedCells(moved ^ line(command - 1)) & tiles) != 0) {
+            return true;
+        }
+        return index < DIM - 1 && (~occupiedCells(moved ^ line(command + 1)) & tiles) != 0;
+    }
+
+    /**
+     * Returns the lowest bit of every non empty cell of a packed line.
+     */
+    private static int occupiedCells(int line) {
+        return (line | (line >>> 1) | (line >>> 2)) & LINE_LOW_BITS;
+    }
+
+    /**
+     * This method returns every cell that has a horizontal or vertical neighbour of the same color.
+     *
+     * @return a 49 bit mask of the adjacent balls
+     * @ensures empty cells are never part of the mask
+     */
+
+    public long adjacencyMask() {
+        return horizontalPairs | (horizontalPairs << 1) | verticalPairs | (verticalPairs << DIM);
+    }
+
+    /**
+     * This method removes every ball that has a neighbour of the same color and counts the
+     * removed balls per color. Detection and removal happen in the same pass over the colors.
+     * Every ball of a pair is removed, so no pairs are left afterwards.
+     *
+     * @param counts array of length 6 the removed balls are added to, index color - 1
+     * @return the amount of removed balls
+     * @ensures adjacencyMask() == 0
+     */
+
+    public int removeAdjacent(int[] counts) {
+        return removeAdjacent(counts, null);
+    }
+
+    /**
+     * Removes the adjacent balls like removeAdjacent(counts), recording the removed cells in undo if it is not null.
+     */
+    private int removeAdjacent(int[] counts, MoveUndo undo) {
+        long removed = adjacencyMask();
+        if (undo != null) {
+            undo.removedAll = removed;
+            undo.horizontalPairs = horizontalPairs;
+            undo.verticalPairs = verticalPairs;
+        }
+        if (removed == 0) {
+            return 0;
+        }
+        for (int c = 0; c < COLORS; c++) {
+            long adjacent = colorMasks[c] & removed;
+            if (undo != null) {
+                undo.removed[c] = adjacent;
+            }
+            if (adjacent != 0) {
+                counts[c] += Long.bitCount(adjacent);
+                colorMasks[c] &= ~adjacent;
+                int base = CELLS * (c + 1);
+                for (long m = adjacent; m != 0; m &= m - 1) {
+                    hash ^= KEYS[base + Long.numberOfTrailingZeros(m)];
+                }
+            }
+        }
+        occupied &= ~removed;
+        clearPacked(removed);
+        horizontalPairs = 0;
+        verticalPairs = 0;
+        version = ++lastVersion;
+        return Long.bitCount(removed);
+    }
+
+    /**
+     * Clears the packed cells of a mask, one word at a time.
+     */
+    private void clearPacked(long mask) {
+        for (int w = 0; w < WORDS; w++) {
+            packed[w] &= ~spread(mask, w);
+        }
+    }
+
+    /**
+     * Returns the cells of word w that are in the mask, with all 3 bits of each cell set.
+     */
+    private static long spread(long mask, int w) {
+        int bits = (int) (mask >>> (CELLS_PER_WORD * w)) & ((1 << CELLS_PER_WORD) - 1);
+        return SPREAD[bits & 127]
+                | (long) SPREAD[(bits >>> DIM) & 127] << LINE_BITS
+                | (long) SPREAD[bits >>> (2 * DIM)] << (2 * LINE_BITS);
+    }
+
+    /**
+     * This method moves a line like moveLine and records the displaced line in undo.
+     *
+     * @param command between 0-27
+     * @param undo    the record to overwrite
+     * @return True if any tile changed place
+     * @ensures unmakeMove(undo) restores the board as it was before this call
+     */
+
+    public boolean makeMove(int command, MoveUndo undo) {
+        undo.command = command;
+        undo.line = line(command);
+        undo.version = version;
+        undo.hash = hash;
+        undo.removedAll = 0;
+        for (int c = 0; c < COLORS; c++) {
+            undo.removed[c] = 0;
+        }
+        return moveLine(command);
+    }
+
+    /**
+     * This method moves a line and removes the adjacent balls, recording both in undo.
+     *
+     * @param command between 0-27
+     * @param undo    the record to overwrite
+     * @param counts  array of length 6 the removed balls are added to, index color - 1
+     * @return the amount of removed balls
+     * @ensures unmakeMove(undo, counts) restores the board and counts as they were before this call
+     */
+
+    public int makeMove(int command, MoveUndo undo, int[] counts) {
+        makeMove(command, undo);
+        return removeAdjacent(counts, undo);
+    }
+
+    /**
+     * This method puts back the removed balls and the displaced line of a move.
+     *
+     * @param undo   the record filled by makeMove
+     * @param counts the counts the removed balls were added to, or null
+     * @requires the board not to have been changed since the makeMove call of undo,
+     * other than by moves that have already been undone
+     */
+
+    public void unmakeMove(MoveUndo undo, int[] counts) {
+        if (undo.removedAll != 0) {
+            for (int c = 0; c < COLORS; c++) {
+                long removed = undo.removed[c];
+                if (removed != 0) {
+                    colorMasks[c] |= removed;
+                    if (counts != null) {
+                        counts[c] -= Long.bitCount(removed);
+                    }
+                    long color = (c + 1) * REPEAT_CELL;
+                    for (int w = 0; w < WORDS; w++) {
+                        packed[w] |= spread(removed, w) & color;
+                    }
+                }
+            }
+            occupied |= undo.removedAll;
+            horizontalPairs = undo.horizontalPairs;
+            verticalPairs = undo.verticalPairs;
+        }
+        setLine(undo.command, undo.line);
+        version = undo.version;
+        hash = undo.hash;
+    }
+
+    /**
+     * This method copies the state of another bitboard into this one.
+     *
+     * @param other the bitboard to copy
+     * @ensures every cell of this bitboard equals the one of other
+     */
+
+    public void copyFrom(BitBoard other) {
+        System.arraycopy(other.packed, 0, packed, 0, WORDS);
+        System.arraycopy(other.colorMasks, 0, colorMasks, 0, COLORS);
+        occupied = other.occupied;
+        horizontalPairs = other.horizontalPairs;
+        verticalPairs = other.verticalPairs;
+        hash = other.hash;
+        version = ++lastVersion;
+    }
+}
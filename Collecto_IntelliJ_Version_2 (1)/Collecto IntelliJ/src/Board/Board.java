@@ -18,8 +18,9 @@ public class Board {
     public static final int DIM = 7;
     public static final int[] TILES = {1, 2, 3, 4, 5, 6};
     /**
-     * The DIM by DIM fields of the Tic Tac Toe board. The possible colors
-     * are represented by TILES (6 colors)
+     * The DIM by DIM fields of the board are packed into a BitBoard. The possible colors
+     * are represented by TILES (6 colors). rowBoard keeps the layout generated by initBoard
+     * so it can be sent to the clients.
      *
      * @invariant there are always DIM*DIM fields
      * @invariant rowBoard is always DIM*DIM long
@@ -27,111 +28,108 @@ public class Board {
      */
 
     public int[] rowBoard = new int[DIM * DIM];
-    public int[][] fields = new int[DIM][DIM];
+    private final BitBoard bits = new BitBoard();
+
+    /**
+     * Undo records used by the validators to try moves on this board instead of on a copy.
+     */
+    private final MoveUndo firstUndo = new MoveUndo();
+    private final MoveUndo secondUndo = new MoveUndo();
+
+    /**
+     * The valid moves of the position with the stored version of the BitBoard. Any change of the
+     * tiles changes the version, so the masks are computed again on the next request.
+     */
+    private int singleMoves;
+    private long singleMovesVersion = -1;
+    private final int[] doubleMoves = new int[CommandTable.COMMANDS];
+    private long doubleMovesVersion = -1;
+    private DoubleMoveClasses doubleMoveClasses;
+    private long doubleMoveClassesVersion = -1;
+    private int canonicalSymmetry;
+    private long canonicalSymmetryVersion = -1;
+
+    /**
+     * The seed the tiles were generated from by initBoard.
+     */
+    private long seed;
 
 
     /**
-     * This method randomly generates the tiles of the board, checks for their validity (no adjacent tiles of same
-     * color allowed), checks if board has initial moves, and sets the 2D board array.
+     * This method randomly generates the tiles of the board from a new seed of the calling thread.
      *
      * @ensures all fields are full except the middle one
      * @ensures a possible initial move (single or double)
      * @ensures no adjacent balls
-     * @ensures the 2D array is generated in a cartesian format x y
+     * @ensures getSeed() returns the seed the board was generated from
      */
     public void initBoard() {
-        //checks the amount of tiles per color
-        int[] checker = new int[6];
-        //generate random and fill it into board array
-        //if the randomly generated number is not valid, the program will generate a new one
-        for (int i = 0; i < DIM * DIM; i++) {
-            if (i != Math.floorDiv(DIM * DIM, 2)) { //do not set the middle slot
-                if (i == 0) {   //first element of the board
-                    int n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-                    this.rowBoard[i] = n;
-                    checker[n - 1] += 1;
-                } else if (i < 7) {     //first row
-                    int n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-
-                    while (n == this.rowBoard[i - 1]) {
-                        n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-                    }
-                    this.rowBoard[i] = n;
-                    checker[n - 1] += 1;
-
-                } else if (i != 0 && i % 7 == 0) {      //first element of each row doesn't need to check the previous element
-                    int n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-
-                    while (n == this.rowBoard[i - DIM]) {
-                        n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-                    }
-                    this.rowBoard[i] = n;
-                    checker[n - 1] += 1;
-
-                } else {       //all the remaining tiles of the board
-                    int n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-                    while (n == this.rowBoard[i - 1] || n == this.rowBoard[i - DIM]) {
-                        n = getRandomIntegerBetweenRange(TILES[0], TILES.length);
-                    }
-                    this.rowBoard[i] = n;
-                    checker[n - 1] += 1;
-                }
-                //the board is now full: check whether it is valid by counting the amount of tiles of each color
-                //and the possible moves
-            }
-            for (int j : checker) {
-                if (j > 8) {
-                    checker = new int[6];
-                    rowBoard = new int[DIM * DIM];
-                    i = -1;
-                }
-            }
-        }
-        //set the middle slot of the board to empty
-        this.rowBoard[Math.floorDiv(DIM * DIM, 2)] = 0;
+        initBoard(BoardGenerator.nextSeed());
+    }
 
-        //generate 2D board array
-        for (int y = 0; y < DIM; y++) {
-            for (int x = 0; x < DIM; x++) {
-                this.fields[x][y] = this.rowBoard[7 * y + x];
-            }
-        }
-        //check if the board has initial moves, otherwise re-initiate the board
-        if (!singleMovePossible() && !doubleMovePossible()) {
-            System.out.println("board re-initiated");
-            synchronized (this) {
-                initBoard();
+    /**
+     * This method generates the tiles of the board from a seed. The same seed always gives the same board,
+     * so a game can be reproduced. Layouts without any initial move are replaced by the next layout of
+     * the same generator, in a loop.
+     *
+     * @param seed the seed of the generator
+     * @ensures all fields are full except the middle one
+     * @ensures a possible initial move (single or double)
+     * @ensures no adjacent balls
+     * @ensures at most 8 tiles of each color
+     */
+    public void initBoard(long seed) {
+        this.seed = seed;
+        SplitMix64 random = new SplitMix64(seed);
+        do {
+            BoardGenerator.fill(random, rowBoard);
+            //load the packed board
+            for (int i = 0; i < DIM * DIM; i++) {
+                bits.set(i, rowBoard[i]);
             }
-        }
+        } while (gameOver());
+    }
+
+    /**
+     * This method returns the seed the board was generated from.
+     *
+     * @return the seed given to initBoard, 0 if the board was not generated
+     */
+
+    public long getSeed() {
+        return seed;
     }
 
 
     /**
-     * This method makes use of the raw board array to generate a two dimensional board array for an easier cartesian access
+     * This method makes use of the packed board to generate a two dimensional board array for an easier cartesian access
      * to the slots on the board
      *
-     * @return the two dimensional array of board tiles
+     * @return a snapshot of the board tiles, indexed [x][y]
+     * @ensures changing the returned array does not change the board
      */
 
     public int[][] getTiles() {
-        return this.fields;
+        int[][] tiles = new int[DIM][DIM];
+        for (int y = 0; y < DIM; y++) {
+            for (int x = 0; x < DIM; x++) {
+                tiles[x][y] = bits.get(DIM * y + x);
+            }
+        }
+        return tiles;
     }
 
-
     /**
-     * This method generates a random primitive integer in range (min, max)
+     * This method returns the packed representation of the board.
      *
-     * @return randomly generated integer
-     * @requires min and max to be not null and integer
-     * @ensures the range of the randomly generated number is in range (min, max) included
+     * @return the BitBoard backing this board
      */
 
-    public int getRandomIntegerBetweenRange(int min, int max) {
-        int x = (int) (Math.random() * ((max - min) + 1)) + min;
-        assert x > 0;
-        return x;
+    public BitBoard getBits() {
+        return bits;
     }
 
+
     /**
      * This method checks which are the lines that can be moved and returns the list
      * of the possible commands in the moment of the execution of the method.
@@ -141,13 +139,37 @@ public class Board {
      */
     public List<Integer> possibleMovements() {
         List<Integer> possibleMoves = new ArrayList<Integer>();
+        MoveSets.forEach(possibleMovementsMask(), possibleMoves::add);
+        return possibleMoves;
+    }
 
-        for (int i = 0; i < DIM * 4; i++) { //dim*4 = amount of commands
-            if (rowFreeSpace(commandIndex(i)) || columnFreeSpace(commandIndex(i))) {
-                possibleMoves.add(i);
+    /**
+     * This method returns the commands of possibleMovements as a bit mask.
+     *
+     * @return a 28 bit mask where bit i is set if command i is a possible movement
+     * @ensures bit i is set if and only if isPossibleMovement(i)
+     */
+
+    public int possibleMovementsMask() {
+        int mask = 0;
+        long free = ~bits.occupied();
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            if ((free & CommandTable.movableMask(i)) != 0) {
+                mask |= 1 << i;
             }
         }
-        return possibleMoves;
+        return mask;
+    }
+
+    /**
+     * This method checks whether a command is in the list of possibleMovements, without building the list.
+     *
+     * @param command the command to check
+     * @return True if the command is in range 0-27 and its row or column has a free space
+     */
+
+    public boolean isPossibleMovement(int command) {
+        return isMove(command) && (~bits.occupied() & CommandTable.movableMask(command)) != 0;
     }
 
     /**
@@ -158,7 +180,7 @@ public class Board {
      */
 
     public boolean singleMovePossible() {
-        return singleMovesList().size() != 0;
+        return singleMoveMask() != 0;
     }
 
     /**
@@ -169,7 +191,13 @@ public class Board {
      */
 
     public boolean doubleMovePossible() {
-        return doubleMovesList().size() != 0;
+        int[] doubleMoves = doubleMoveMasks();
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            if (doubleMoves[i] != 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -183,14 +211,7 @@ public class Board {
 
     public boolean singleMoveValid(int move) {
         //if single move possible and results in adjacent, then true
-        //try the move on a copied version of the board
-        //check for all the possible commands (rows/cols with free spaces) and add them to the list
-        if (possibleMovements().contains(move)) {
-            Board b = deepCopy();
-            b.moveLine(move);
-            return b.adjacentBallsPresent();
-        }
-        return false;
+        return isMove(move) && (singleMoveMask() & (1 << move)) != 0;
     }
 
     /**
@@ -213,17 +234,151 @@ public class Board {
         //if single valid move not possible
         //if second move (combined with the first) is valid then return true
         //second move might become available only after move1's execution
-        //try the moves on a copied version of the board
+        return isMove(move1) && isMove(move2) && (doubleMoveMasks()[move1] & (1 << move2)) != 0;
+    }
 
-        if (possibleMovements().contains(move1)     //check if the first move can be moved
-                && singleMovesList().size() == 0) { //check
-            Board b = deepCopy();
-            b.moveLine(move1);                      //execute the move
-            //check if the copy of the board now has the valid move
-            return b.singleMoveValid(move2);
+    /**
+     * This method returns all the valid single moves of the current position as a bit mask.
+     * The mask is computed once per position and reused until the board changes.
+     *
+     * @return a 28 bit mask where bit i is set if command i is a valid single move
+     * @ensures bit i is set if and only if singleMoveValid(i)
+     */
 
+    public int singleMoveMask() {
+        if (singleMovesVersion != bits.version()) {
+            singleMoves = computeSingleMoves();
+            singleMovesVersion = bits.version();
         }
-        return false;
+        return singleMoves;
+    }
+
+    /**
+     * This method returns the valid second moves of a double move starting with the given command.
+     *
+     * @param first the first command of the double move
+     * @return a 28 bit mask where bit j is set if doubleMoveValid(first, j)
+     * @requires first to be in range 0-27
+     */
+
+    public int doubleMoveMask(int first) {
+        return doubleMoveMasks()[first];
+    }
+
+    /**
+     * This method returns all the valid double moves of the current position as a set for MoveSets,
+     * one mask of second moves per first move.
+     *
+     * @return a copy of the 28 masks, changing it does not change the board
+     * @ensures bit j of element i is set if and only if doubleMoveValid(i, j)
+     */
+
+    public int[] doubleMoveSet() {
+        return doubleMoveMasks().clone();
+    }
+
+    /**
+     * This method groups the valid double moves by the board they lead to, so that double moves
+     * giving the same board (such as two independent lines moved in either order) are only looked
+     * at once. Boards are compared by their Zobrist hash. The classes are computed once per position.
+     *
+     * @return the classes of the valid double moves
+     * @ensures the classes together hold every move of doubleMovesList
+     */
+
+    public DoubleMoveClasses doubleMoveClasses() {
+        if (doubleMoveClassesVersion != bits.version()) {
+            int[] doubleMoves = doubleMoveSet();
+            DoubleMoveClasses classes = new DoubleMoveClasses(MoveSets.size(doubleMoves));
+            for (int i = 0; i < CommandTable.COMMANDS; i++) {
+                if (doubleMoves[i] == 0) {
+                    continue;
+                }
+                bits.makeMove(i, firstUndo);
+                for (int moves = doubleMoves[i]; moves != 0; moves &= moves - 1) {
+                    int j = Integer.numberOfTrailingZeros(moves);
+                    bits.makeMove(j, secondUndo);
+                    classes.add(MoveSets.pair(i, j), bits.hash());
+                    bits.unmakeMove(secondUndo, null);
+                }
+                bits.unmakeMove(firstUndo, null);
+            }
+            doubleMoveClasses = classes;
+            doubleMoveClassesVersion = bits.version();
+        }
+        return doubleMoveClasses;
+    }
+
+    /**
+     * Returns the cached double moves, one mask of second moves per first move,
+     * computing them if the board changed since the last call.
+     */
+    private int[] doubleMoveMasks() {
+        if (doubleMovesVersion != bits.version()) {
+            computeDoubleMoves(doubleMoves);
+            doubleMovesVersion = bits.version();
+        }
+        return doubleMoves;
+    }
+
+    /**
+     * Checks every possible command on this board without making it.
+     */
+    private int computeSingleMoves() {
+        int mask = 0;
+        long free = ~bits.occupied();
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            if ((free & CommandTable.movableMask(i)) != 0 && bits.adjacentAfterMove(i)) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Fills doubleMoves[i] with the single moves that become valid after command i.
+     * Double moves only count when no single move is valid.
+     */
+    private void computeDoubleMoves(int[] doubleMoves) {
+        Arrays.fill(doubleMoves, 0);
+        if (singleMoveMask() != 0) {
+            return;
+        }
+        long free = ~bits.occupied();
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            if ((free & CommandTable.movableMask(i)) != 0) {
+                bits.makeMove(i, firstUndo);        //execute the move
+                //check which moves the board now has
+                doubleMoves[i] = computeSingleMoves();
+                bits.unmakeMove(firstUndo, null);
+            }
+        }
+    }
+
+    /**
+     * This method returns the turns the player to move can take: every valid single move, or one
+     * double move of every class of doubleMoveClasses when there is no single move.
+     *
+     * @return the turns encoded as in MoveSets, empty if the game is over
+     * @ensures no two turns lead to the same board
+     */
+
+    public int[] legalTurns() {
+        int singles = singleMoveMask();
+        if (singles != 0) {
+            int[] turns = new int[MoveSets.size(singles)];
+            for (int i = 0; i < turns.length; i++) {
+                turns[i] = Integer.numberOfTrailingZeros(singles);
+                singles &= singles - 1;
+            }
+            return turns;
+        }
+        DoubleMoveClasses classes = doubleMoveClasses();
+        int[] turns = new int[classes.size()];
+        for (int c = 0; c < turns.length; c++) {
+            turns[c] = classes.representative(c);
+        }
+        return turns;
     }
 
     /**
@@ -238,11 +393,7 @@ public class Board {
     public List<Integer> singleMovesList() {
         List<Integer> singleMovesList = new ArrayList<Integer>();
         //all valid single moves
-        for (int i : possibleMovements()) {
-            if (singleMoveValid(i)) {
-                singleMovesList.add(i);
-            }
-        }
+        MoveSets.forEach(singleMoveMask(), singleMovesList::add);
         return singleMovesList;
     }
 
@@ -256,21 +407,10 @@ public class Board {
      */
 
     public List<Integer[]> doubleMovesList() {
-        //check for all the second moves or just for the ones available
         //all valid double moves
         List<Integer[]> doubleMovesList = new ArrayList<>();
-        //all valid single moves
-        //could check only the available ones
-        for (int i : possibleMovements()) {
-            for (int j = 0; j < DIM * 4; j++) {
-                if (doubleMoveValid(i, j)) {
-                    //expensivest, but the easiest to execute. Taken in consideration that there
-                    //won't be lots of doubleMoves during gameplay
-                    // (32 bytes allocation instead of 8 bytes per array)
-                    doubleMovesList.add(storeIntCouple(i, j));
-                }
-            }
-        }
+        MoveSets.forEach(doubleMoveMasks(),
+                pair -> doubleMovesList.add(storeIntCouple(MoveSets.first(pair), MoveSets.second(pair))));
         return doubleMovesList;
     }
 
@@ -285,12 +425,7 @@ public class Board {
      */
 
     public boolean columnFreeSpace(int index) {
-        for (int y = 0; y < DIM; y++) {
-            if (getTiles()[index][y] == 0) {
-                return true;
-            }
-        }
-        return false;
+        return (~bits.occupied() & BitBoard.COLUMN_MASKS[index]) != 0;
     }
 
     /**
@@ -304,12 +439,17 @@ public class Board {
      */
 
     public boolean rowFreeSpace(int index) {
-        for (int x = 0; x < DIM; x++) {
-            if (getTiles()[x][index] == 0) {
-                return true;
-            }
-        }
-        return false;
+        return (~bits.occupied() & BitBoard.ROW_MASKS[index]) != 0;
+    }
+
+    /**
+     * This method counts the balls left on the board.
+     *
+     * @return the amount of occupied cells, between 0 and 48
+     */
+
+    public int tileCount() {
+        return Long.bitCount(bits.occupied());
     }
 
     /**
@@ -325,26 +465,29 @@ public class Board {
     public int[] removeBalls() {
         //check for all adjacent balls
         int[] colorChecker = new int[TILES.length];
-        if (adjacentBallsPresent()) {
-            List<Integer[]> copy = new ArrayList<>(adjacentBalls().size());
-
-            for (Integer[] ints : adjacentBalls()) { //copy the array of current adjacent
-                copy.add(ints.clone());
-            }
-
-            for (Integer[] integers : copy) {
-                int x = integers[0];
-                int y = integers[1];
-                colorChecker[getTileColor(x, y) - 1]++;     //store the color of the removed ball for score
-                setTile(x, y, 0);
-            }
-
+        //store the color of the removed balls for score
+        if (bits.removeAdjacent(colorChecker) != 0) {
             return colorChecker;
         } else {
             return null;
         }
     }
 
+    /**
+     * This method removes the adjacent balls on the board and adds the colors of each
+     * removed ball to the given array, without allocating.
+     *
+     * @param colorChecker array of length 6 the removed balls are added to, index color - 1
+     * @return the amount of removed balls, 0 if there were no adjacent balls
+     * @requires colorChecker to have length 6
+     * @ensures all adjacent balls are removed
+     * @ensures colorChecker[c - 1] is increased by the amount of removed balls of color c
+     */
+
+    public int removeBalls(int[] colorChecker) {
+        return bits.removeAdjacent(colorChecker);
+    }
+
     /**
      * This method moves the lines up, down, left, or right.
      * The method iterates from left in case of moving left or up.
@@ -361,55 +504,51 @@ public class Board {
      */
 
     public void moveLine(int command) {
+        bits.moveLine(command);
+    }
 
-        int lastChecked = 0;
-        int index = commandIndex(command);
-        if (commandDirection(command) == 0 || commandDirection(command) == 2) {
-            //iterate from the left
-            for (int i = 0; i < DIM; i++) {
-                if (commandRowColumn(command) && rowFreeSpace(index)) {    //if row
-                    if (getRow(index)[i] != 0) {    //if not empty
-                        if (i != lastChecked) {     //check if needs to be moved
-                            setTileRow(index, lastChecked, getTileColor(i, index));
-                            setTileRow(index, i, 0);
-                        }
-                        lastChecked++;
-                    }
-                } else if (!commandRowColumn(command) && columnFreeSpace(index)) {                           //if column
-                    if (getColumn(index)[i] != 0) {  //if not empty
-                        if (i != lastChecked) {      //check if needs to be moved
-                            setTileColumn(index, lastChecked, getTileColor(index, i)); //move the tile
-                            setTileColumn(index, i, 0); //delete the duplicate
-                        }
-                        lastChecked++;
-                    }
-                }
-            }
-        } else if (commandDirection(command) == 1 || commandDirection(command) == 3) {
-            //iterate from right
-            lastChecked = DIM - 1;
-            for (int i = DIM - 1; i >= 0; i--) {
-                //if row
-                if (commandRowColumn(command) && rowFreeSpace(index)) {    //if row
-                    if (getRow(index)[i] != 0) {    //if not empty
-                        if (i != lastChecked) {     //check if needs to be moved
-                            setTileRow(index, lastChecked, getTileColor(i, index)); //move the tile
-                            setTileRow(index, i, 0);    //delete the duplicate
-                        }
-                        lastChecked--;
-                    }
-                } else if (!commandRowColumn(command) && columnFreeSpace(index)) {                            //if column
-                    if (getColumn(index)[i] != 0) { //if not empty
-                        if (i != lastChecked) {     //check if needs to be moved
-                            setTileColumn(index, lastChecked, getTileColor(index, i));  //move the tile
-                            setTileColumn(index, i, 0);  //delete the duplicate
-                        }
-                        lastChecked--;
-                    }
-                }
-            }
-        }
+    /**
+     * This method moves a line like moveLine and records the displaced line, so that
+     * the move can be taken back with unmakeMove. Adjacent balls are not removed.
+     *
+     * @param command between 0-27
+     * @param undo    the record to store the displaced line in
+     * @return True if any tile changed place
+     * @requires command to be in range 0-27
+     * @ensures unmakeMove(undo, counts) restores the board as it was before the move
+     */
+
+    public boolean makeMove(int command, MoveUndo undo) {
+        return bits.makeMove(command, undo);
+    }
+
+    /**
+     * This method moves a line and removes the adjacent balls, recording both the displaced
+     * line and the removed balls so that the move can be taken back with unmakeMove.
+     *
+     * @param command      between 0-27
+     * @param undo         the record to store the displaced line and removed balls in
+     * @param colorChecker array of length 6 the removed balls are added to, index color - 1
+     * @return the amount of removed balls
+     * @requires command to be in range 0-27
+     * @ensures unmakeMove(undo, colorChecker) restores the board and colorChecker
+     */
+
+    public int makeMove(int command, MoveUndo undo, int[] colorChecker) {
+        return bits.makeMove(command, undo, colorChecker);
+    }
+
+    /**
+     * This method takes back a move made with makeMove: the removed balls are put back
+     * and the line is restored. Moves have to be undone in the reverse order they were made.
+     *
+     * @param undo         the record filled by makeMove
+     * @param colorChecker the array the removed balls were added to, or null
+     * @ensures the board (and colorChecker) are as they were before the move
+     */
 
+    public void unmakeMove(MoveUndo undo, int[] colorChecker) {
+        bits.unmakeMove(undo, colorChecker);
     }
 
     /**
@@ -422,15 +561,161 @@ public class Board {
 
     public Board deepCopy() {
         Board newBoard = new Board();
+        newBoard.bits.copyFrom(bits);
+        newBoard.seed = seed;
+        return newBoard;
+    }
 
-        for (int y = 0; y < DIM; y++) {
-            for (int x = 0; x < DIM; x++) {
-                newBoard.setTile(x, y, getTiles()[x][y]);
-            }
+    /**
+     * This method returns the Zobrist hash of the position, kept up to date by every change of the tiles.
+     *
+     * @return the 64 bit hash of the tiles
+     * @ensures boards with the same tiles return the same hash, also across client and server
+     */
+
+    public long zobristHash() {
+        return bits.hash();
+    }
+
+    /**
+     * This method returns a copy of the board rotated and/or mirrored by a symmetry.
+     *
+     * @param symmetry between 0-7, see Symmetry
+     * @return a new board where the tile of every field (x, y) is moved to its image
+     */
+
+    public Board transformed(int symmetry) {
+        Board newBoard = new Board();
+        for (int cell = 0; cell < DIM * DIM; cell++) {
+            newBoard.bits.set(Symmetry.cell(symmetry, cell), bits.get(cell));
         }
         return newBoard;
     }
 
+    /**
+     * This method returns the symmetry that turns this board into its canonical form: of the 8 rotated
+     * and mirrored boards, the one whose fields, read in the order DIM * y + x, come first.
+     * All 8 boards of a position therefore have the same canonical form.
+     *
+     * @return the symmetry between 0-7, the lowest one if several give the canonical form
+     */
+
+    public int canonicalSymmetry() {
+        if (canonicalSymmetryVersion != bits.version()) {
+            int best = Symmetry.IDENTITY;
+            for (int symmetry = 1; symmetry < Symmetry.SYMMETRIES; symmetry++) {
+                if (compareTransformed(symmetry, best) < 0) {
+                    best = symmetry;
+                }
+            }
+            canonicalSymmetry = best;
+            canonicalSymmetryVersion = bits.version();
+        }
+        return canonicalSymmetry;
+    }
+
+    /**
+     * Compares the boards under two symmetries field by field, without building them.
+     */
+    private int compareTransformed(int first, int second) {
+        int firstInverse = Symmetry.inverse(first);
+        int secondInverse = Symmetry.inverse(second);
+        for (int cell = 0; cell < DIM * DIM; cell++) {
+            int difference = bits.get(Symmetry.cell(firstInverse, cell)) - bits.get(Symmetry.cell(secondInverse, cell));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * This method returns the canonical form of the board.
+     *
+     * @return a new board, equal to transformed(canonicalSymmetry())
+     * @ensures boards that are rotations or reflections of each other give equal canonical boards
+     */
+
+    public Board canonical() {
+        return transformed(canonicalSymmetry());
+    }
+
+    /**
+     * This method returns the Zobrist hash of the canonical form, without building it.
+     *
+     * @return the hash shared by all 8 rotations and reflections of the position
+     * @ensures canonicalHash() == canonical().zobristHash()
+     */
+
+    public long canonicalHash() {
+        int symmetry = canonicalSymmetry();
+        long hash = 0;
+        for (long occupied = bits.occupied(); occupied != 0; occupied &= occupied - 1) {
+            int cell = Long.numberOfTrailingZeros(occupied);
+            hash ^= BitBoard.key(Symmetry.cell(symmetry, cell), bits.get(cell));
+        }
+        return hash;
+    }
+
+    /**
+     * This method translates a command on this board to the command with the same effect on the canonical board.
+     *
+     * @param command between 0-27
+     * @return the command in the canonical frame
+     */
+
+    public int toCanonicalCommand(int command) {
+        return Symmetry.command(canonicalSymmetry(), command);
+    }
+
+    /**
+     * This method translates a command on the canonical board back to the command with the same effect on this board.
+     *
+     * @param command between 0-27, in the canonical frame
+     * @return the command on this board
+     */
+
+    public int fromCanonicalCommand(int command) {
+        return Symmetry.command(Symmetry.inverse(canonicalSymmetry()), command);
+    }
+
+    /**
+     * This method checks whether another board has the same tiles. The layout kept in rowBoard
+     * and the cached moves are not part of the position.
+     *
+     * @param o the object to compare with
+     * @return True if o is a board with the same tile in every field
+     */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Board)) {
+            return false;
+        }
+        return bits.samePosition(((Board) o).bits);
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = bits.hash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * This method returns all the adjacent balls currently present on the board as a
+     * bit mask, where bit DIM * y + x stands for the tile (x, y).
+     *
+     * @return the 49 bit mask of the adjacent balls
+     * @ensures the mask has the same tiles as adjacentBalls(), without allocating
+     */
+
+    public long adjacentBallsMask() {
+        return bits.adjacencyMask();
+    }
+
     /**
      * This method checks whether there are any adjacent balls present on the board.
      *
@@ -439,7 +724,7 @@ public class Board {
      */
 
     public boolean adjacentBallsPresent() {
-        return adjacentBalls().size() != 0;
+        return bits.adjacencyMask() != 0;
     }
 
 
@@ -469,7 +754,6 @@ public class Board {
         int count = 0;
 
         for (int i = 0; i < tiles.length; i++) {
-            System.out.println(count);
             count += Math.floorDiv(tiles[i], 3);
         }
         return count;
@@ -492,18 +776,8 @@ public class Board {
      */
 
     public int commandDirection(int command) {
-        if (command >= 0 && command < DIM) {
-            //left
-            return 0;
-        } else if (command >= DIM && command < 2 * DIM) {
-            //right
-            return 1;
-        } else if (command >= 2 * DIM && command < 3 * DIM) {
-            //up
-            return 2;
-        } else if (command >= 3 * DIM && command < 4 * DIM) {
-            //down
-            return 3;
+        if (isMove(command)) {
+            return CommandTable.direction(command);
         }
         return -1;
     }
@@ -518,42 +792,24 @@ public class Board {
      */
 
     public boolean commandRowColumn(int command) {
-        switch (commandDirection(command)) {
-            case 0:
-            case 1:
-                return true;
-            default:
-                return false;
-        }
+        return isMove(command) && CommandTable.isRow(command);
     }
 
     /**
      * This method returns the row/col index which should be moved by the command
      *
      * @param command between 0-27
-     * @return an integer between 0 and 6 which represents the row/column index
+     * @return an integer between 0 and 6 which represents the row/column index, -1 if the command is not in range
      * @requires command to be in range 0-27
      * @ensures command to be mapped in a range of 0-6 of the possible row/col indexes
      * @ensures all the commands representing a specific row to return the same index value
      */
 
     public int commandIndex(int command) {
-        //row
-        if (commandRowColumn(command)) {
-            //return indexes of commands  0-6 and 7-14
-            if (command - DIM < 0) {
-                return command;
-            } else {
-                return command - DIM;
-            }
-        } else {
-            //return indexes of commands  14-20 and 21-27
-            if (command - (3 * DIM) < 0) {
-                return command - (2 * DIM);
-            } else {
-                return command - (3 * DIM);
-            }
+        if (isMove(command)) {
+            return CommandTable.line(command);
         }
+        return -1;
     }
 
     /**
@@ -569,7 +825,7 @@ public class Board {
         int[] row = new int[DIM];
 
         for (int i = 0; i < DIM; i++) {
-            row[i] = getTiles()[i][index];
+            row[i] = getTileColor(i, index);
         }
         return row;
     }
@@ -586,7 +842,7 @@ public class Board {
     public int[] getColumn(int index) {
         int[] column = new int[DIM];
         for (int i = 0; i < DIM; i++) {
-            column[i] = getTiles()[index][i];
+            column[i] = getTileColor(index, i);
         }
         return column;
     }
@@ -602,7 +858,7 @@ public class Board {
      */
 
     public void setTileColumn(int colIndex, int tileIndex, int newTile) {
-        this.fields[colIndex][tileIndex] = newTile;
+        bits.set(DIM * tileIndex + colIndex, newTile);
     }
 
     /**
@@ -616,7 +872,7 @@ public class Board {
      */
 
     public void setTileRow(int rowIndex, int tileIndex, int newTile) {
-        this.fields[tileIndex][rowIndex] = newTile;
+        bits.set(DIM * rowIndex + tileIndex, newTile);
     }
 
     /**
@@ -630,7 +886,7 @@ public class Board {
      */
 
     public void setTile(int rowIndex, int colIndex, int newTile) {
-        this.fields[rowIndex][colIndex] = newTile;
+        bits.set(DIM * colIndex + rowIndex, newTile);
     }
 
     /**
@@ -645,7 +901,7 @@ public class Board {
      */
 
     public int getTileColor(int rowIndex, int colIndex) {
-        return this.fields[rowIndex][colIndex];
+        return bits.get(DIM * colIndex + rowIndex);
     }
 
     /**
@@ -656,7 +912,79 @@ public class Board {
      */
 
     public boolean gameOver() {
-        return !singleMovePossible() && !doubleMovePossible();
+        return !anyMovePossible();
+    }
+
+    /**
+     * This method checks whether there is any valid single or double move, stopping at the first
+     * one it finds instead of building the move lists.
+     *
+     * @return True if at least one single or double move is valid
+     * @ensures True if and only if singleMovePossible() or doubleMovePossible()
+     */
+
+    public boolean anyMovePossible() {
+        if (singleMovesVersion == bits.version()) {
+            if (singleMoves != 0) {
+                return true;
+            }
+        } else if (findSingleMove()) {
+            return true;
+        }
+
+        if (doubleMovesVersion == bits.version()) {
+            return doubleMovePossible();
+        }
+        return findDoubleMove();
+    }
+
+    /**
+     * Looks for a valid single move, stopping at the first one. If there is none,
+     * the empty mask is cached since every command has been tried.
+     */
+    private boolean findSingleMove() {
+        long free = ~bits.occupied();
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            if ((free & CommandTable.movableMask(i)) != 0 && bits.adjacentAfterMove(i)) {
+                return true;
+            }
+        }
+        singleMoves = 0;
+        singleMovesVersion = bits.version();
+        return false;
+    }
+
+    /**
+     * Looks for a valid double move, stopping at the first one.
+     * Requires that there is no valid single move. When the board has no adjacent balls, a second
+     * command that was not valid on its own can only become valid if the first command changed its
+     * line or a line next to it, so the other second commands are skipped.
+     */
+    private boolean findDoubleMove() {
+        boolean prune = bits.adjacencyMask() == 0;
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            if ((~bits.occupied() & CommandTable.movableMask(i)) == 0) {
+                continue;
+            }
+            if (!bits.makeMove(i, firstUndo) && prune) {
+                //nothing moved, so nothing became valid
+                bits.unmakeMove(firstUndo, null);
+                continue;
+            }
+            int candidates = prune ? CommandTable.affectedMask(i) : (1 << CommandTable.COMMANDS) - 1;
+            long free = ~bits.occupied();
+            boolean found = false;
+            while (candidates != 0 && !found) {
+                int j = Integer.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                found = (free & CommandTable.movableMask(j)) != 0 && bits.adjacentAfterMove(j);
+            }
+            bits.unmakeMove(firstUndo, null);
+            if (found) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -670,94 +998,16 @@ public class Board {
      * there are multiple pairs of different colors).
      * @ensures that the comparisons never check the indexes that are not in the board limits
      * @ensures that empty spaces are not considered as adjacent
+     * @ensures the coordinates are the ones of adjacentBallsMask(), kept for compatibility
      */
     public List<Integer[]> adjacentBalls() {
         //count adjacent balls
         List<Integer[]> adjacentBallsCords = new ArrayList<>();
-        for (int y = 0; y < DIM; y++) {
-            for (int x = 0; x < DIM; x++) {
-                if (getTileColor(x, y) != 0) {
-                    switch (x) {
-                        case 0:
-                            if (y == 0) {
-                                //check whether x+1 or y+1
-                                if (getTileColor(x, y) == getTileColor(x + 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y + 1)) {
-                                    //if found any adjacency, increase
-                                    // the count of the specific color index by 1
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-
-                            } else if (y == DIM - 1) {
-                                //check whether x+1 or y-1
-                                if (getTileColor(x, y) == getTileColor(x + 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y - 1)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-
-                            } else {
-                                //check whether x+1 and y-1 and y+1
-                                if (getTileColor(x, y) == getTileColor(x + 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y - 1)
-                                        || getTileColor(x, y) == getTileColor(x, y + 1)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-
-                            }
-                            break;
-                        case DIM - 1:
-                            if (y == 0) {
-                                //check whether x-1 or y+1
-                                if (getTileColor(x, y) == getTileColor(x - 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y + 1)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-
-                            } else if (y == DIM - 1) {
-                                //check whether x-1 or y-1
-                                if (getTileColor(x, y) == getTileColor(x - 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y - 1)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-
-
-                            } else {
-                                //check whether x-1 and y-1 and y+1
-                                if (getTileColor(x, y) == getTileColor(x - 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y - 1)
-                                        || getTileColor(x, y) == getTileColor(x, y + 1)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-
-
-                            }
-                            break;
-                        default:
-                            //check x-1 , x+1 , y-1 , y+1
-                            if (y == 0) {
-                                if (getTileColor(x, y) == getTileColor(x + 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y + 1)
-                                        || getTileColor(x, y) == getTileColor(x - 1, y)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-                            } else if (y == DIM - 1) {
-                                if (getTileColor(x, y) == getTileColor(x + 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y - 1)
-                                        || getTileColor(x, y) == getTileColor(x - 1, y)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-                            } else {
-                                if (getTileColor(x, y) == getTileColor(x + 1, y)
-                                        || getTileColor(x, y) == getTileColor(x, y - 1)
-                                        || getTileColor(x, y) == getTileColor(x, y + 1)
-                                        || getTileColor(x, y) == getTileColor(x - 1, y)) {
-                                    adjacentBallsCords.add(storeIntCouple(x, y));
-                                }
-                            }
-
-                    }
-                }
-            }
+        long adjacent = bits.adjacencyMask();
+        while (adjacent != 0) {
+            int cell = Long.numberOfTrailingZeros(adjacent);
+            adjacentBallsCords.add(storeIntCouple(cell % DIM, cell / DIM));
+            adjacent &= adjacent - 1;
         }
         return adjacentBallsCords;
     }
@@ -810,7 +1060,7 @@ public class Board {
             b += spacing + delim + "\n";
 
             for (int y = 0; y < DIM; y++) {
-                twoD[x][y] = this.fields[y][x];
+                twoD[x][y] = getTileColor(y, x);
                 if (y == 0) {
                     b += String.format("%2s", (y * DIM + x + 7)) + leftDelim;
                 }
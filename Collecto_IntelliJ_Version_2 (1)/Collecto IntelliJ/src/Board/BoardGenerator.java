@@ -0,0 +1,104 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class fills the starting layout of a board from a seed
+
+package Board;
+
+import java.util.Arrays;
+
+public final class BoardGenerator {
+
+    public static final int DIM = Board.DIM;
+    public static final int CELLS = DIM * DIM;
+    public static final int COLORS = Board.TILES.length;
+    public static final int MIDDLE = CELLS / 2;
+
+    /**
+     * The 48 tiles are split evenly over the 6 colors.
+     */
+    public static final int MAX_PER_COLOR = (CELLS - 1) / COLORS;
+
+    /**
+     * Every thread draws its seeds from its own generator, so generating boards on
+     * several threads at once never waits on a shared Random.
+     */
+    private static final ThreadLocal<SplitMix64> SEEDS = ThreadLocal.withInitial(() ->
+            new SplitMix64(System.nanoTime() ^ Thread.currentThread().getId() * 0x9E3779B97F4A7C15L));
+
+    private BoardGenerator() {
+    }
+
+    /**
+     * This method returns a new random seed from the generator of the calling thread.
+     *
+     * @return a seed for Board.initBoard(seed)
+     */
+
+    public static long nextSeed() {
+        return SEEDS.get().nextLong();
+    }
+
+    /**
+     * This method fills a layout in one pass over the cells. Each cell picks among the colors that
+     * differ from its left and upper neighbour, weighted by how many tiles of that color are still
+     * left, so no color is ever used more than MAX_PER_COLOR times. If a cell has no color left to
+     * pick, the pass starts over with the next numbers of the generator.
+     *
+     * @param random the generator to draw from
+     * @param tiles  the DIM * DIM layout to fill, indexed DIM * y + x
+     * @return the amount of passes it took
+     * @ensures tiles[MIDDLE] == 0 and every other tile is 1-6
+     * @ensures no tile has the color of its left or upper neighbour
+     * @ensures every color is used exactly MAX_PER_COLOR times
+     */
+
+    public static int fill(SplitMix64 random, int[] tiles) {
+        int[] budget = new int[COLORS];
+        int passes = 0;
+        boolean filled = false;
+        while (!filled) {
+            passes++;
+            Arrays.fill(budget, MAX_PER_COLOR);
+            filled = true;
+            for (int i = 0; i < CELLS && filled; i++) {
+                if (i == MIDDLE) {
+                    tiles[i] = 0;
+                    continue;
+                }
+                //bit c - 1 for a neighbour of color c, nothing for an empty neighbour
+                int forbidden = 0;
+                if (i % DIM != 0) {
+                    forbidden |= (1 << tiles[i - 1]) >> 1;
+                }
+                if (i >= DIM) {
+                    forbidden |= (1 << tiles[i - DIM]) >> 1;
+                }
+
+                int total = 0;
+                for (int c = 0; c < COLORS; c++) {
+                    if ((forbidden & (1 << c)) == 0) {
+                        total += budget[c];
+                    }
+                }
+                if (total == 0) {
+                    filled = false;
+                } else {
+                    int pick = random.nextInt(total);
+                    int c = 0;
+                    while ((forbidden & (1 << c)) != 0 || pick >= budget[c]) {
+                        if ((forbidden & (1 << c)) == 0) {
+                            pick -= budget[c];
+                        }
+                        c++;
+                    }
+                    budget[c]--;
+                    tiles[i] = c + 1;
+                }
+            }
+        }
+        return passes;
+    }
+}
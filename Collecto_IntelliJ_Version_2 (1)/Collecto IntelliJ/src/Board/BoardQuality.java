@@ -0,0 +1,83 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class holds the measures used to judge a starting board
+
+package Board;
+
+public class BoardQuality {
+
+    /**
+     * singleMoves is the amount of valid single moves, branchingFactor the amount of valid turns
+     * (the single moves, or the double moves when there are none) and scorePotential the most
+     * balls a single turn can remove.
+     */
+    private final int singleMoves;
+    private final int branchingFactor;
+    private final int scorePotential;
+
+    public BoardQuality(int singleMoves, int branchingFactor, int scorePotential) {
+        this.singleMoves = singleMoves;
+        this.branchingFactor = branchingFactor;
+        this.scorePotential = scorePotential;
+    }
+
+    /**
+     * This method measures a board by trying every valid turn on it.
+     *
+     * @param board the board to measure, it is left unchanged
+     * @return the measures of the board
+     */
+
+    public static BoardQuality of(Board board) {
+        MoveUndo first = new MoveUndo();
+        MoveUndo second = new MoveUndo();
+        int[] counts = new int[BitBoard.COLORS];
+        int score = 0;
+
+        int singles = board.singleMoveMask();
+        if (singles != 0) {
+            for (int m = singles; m != 0; m &= m - 1) {
+                int command = Integer.numberOfTrailingZeros(m);
+                score = Math.max(score, board.makeMove(command, first, counts));
+                board.unmakeMove(first, counts);
+            }
+            return new BoardQuality(Integer.bitCount(singles), Integer.bitCount(singles), score);
+        }
+
+        int doubles = 0;
+        for (int i = 0; i < CommandTable.COMMANDS; i++) {
+            int seconds = board.doubleMoveMask(i);
+            if (seconds == 0) {
+                continue;
+            }
+            doubles += Integer.bitCount(seconds);
+            board.makeMove(i, first);
+            for (int m = seconds; m != 0; m &= m - 1) {
+                score = Math.max(score, board.makeMove(Integer.numberOfTrailingZeros(m), second, counts));
+                board.unmakeMove(second, counts);
+            }
+            board.unmakeMove(first, null);
+        }
+        return new BoardQuality(0, doubles, score);
+    }
+
+    public int getSingleMoves() {
+        return singleMoves;
+    }
+
+    public int getBranchingFactor() {
+        return branchingFactor;
+    }
+
+    public int getScorePotential() {
+        return scorePotential;
+    }
+
+    @Override
+    public String toString() {
+        return "singles " + singleMoves + ", branching " + branchingFactor + ", score potential " + scorePotential;
+    }
+}
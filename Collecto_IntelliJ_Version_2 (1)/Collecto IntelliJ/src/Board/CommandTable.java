@@ -0,0 +1,148 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class holds the precomputed decoding of the 28 move commands
+
+package Board;
+
+public final class CommandTable {
+
+    public static final int DIM = Board.DIM;
+    public static final int COMMANDS = 4 * DIM;
+
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int UP = 2;
+    public static final int DOWN = 3;
+
+    /**
+     * For every command: the row/column index, the direction, and the DIM cells of its line
+     * ordered from the side the tiles slide towards. Cells are numbered DIM * y + x.
+     *
+     * @invariant the tables are filled once and never changed
+     */
+    private static final int[] LINE = new int[COMMANDS];
+    private static final int[] DIRECTION = new int[COMMANDS];
+    private static final int[] CELLS = new int[COMMANDS * DIM];
+    private static final long[] LINE_MASK = new long[COMMANDS];
+    private static final long[] MOVABLE_MASK = new long[COMMANDS];
+    private static final int[] AFFECTED = new int[COMMANDS];
+
+    static {
+        for (int command = 0; command < COMMANDS; command++) {
+            int direction = command / DIM;
+            int index = command % DIM;
+            LINE[command] = index;
+            DIRECTION[command] = direction;
+
+            for (int k = 0; k < DIM; k++) {
+                //the k-th tile counted from the side the line is moved to
+                int position = (direction == LEFT || direction == UP) ? k : DIM - 1 - k;
+                int cell = (direction == LEFT || direction == RIGHT)
+                        ? DIM * index + position
+                        : DIM * position + index;
+                CELLS[command * DIM + k] = cell;
+                LINE_MASK[command] |= 1L << cell;
+            }
+            //a command counts as possible when the row or the column of its index has a free space
+            MOVABLE_MASK[command] = BitBoard.ROW_MASKS[index] | BitBoard.COLUMN_MASKS[index];
+        }
+
+        for (int first = 0; first < COMMANDS; first++) {
+            for (int second = 0; second < COMMANDS; second++) {
+                //a parallel line more than one step away shares no cell or neighbour with the first line,
+                //and repeating the first command can not move anything
+                boolean parallel = isRow(first) == isRow(second);
+                if (second != first && (!parallel || Math.abs(LINE[first] - LINE[second]) <= 1)) {
+                    AFFECTED[first] |= 1 << second;
+                }
+            }
+        }
+    }
+
+    private CommandTable() {
+    }
+
+    /**
+     * This method returns the row/column index moved by the command.
+     *
+     * @param command between 0-27
+     * @return the index between 0-6
+     */
+
+    public static int line(int command) {
+        return LINE[command];
+    }
+
+    /**
+     * This method returns the direction of the command.
+     *
+     * @param command between 0-27
+     * @return LEFT, RIGHT, UP or DOWN
+     */
+
+    public static int direction(int command) {
+        return DIRECTION[command];
+    }
+
+    /**
+     * This method checks whether the command moves a row.
+     *
+     * @param command between 0-27
+     * @return True if a row is moved, false if a column
+     */
+
+    public static boolean isRow(int command) {
+        return DIRECTION[command] < UP;
+    }
+
+    /**
+     * This method returns the k-th cell of the command's line, counted from the side the tiles slide to.
+     *
+     * @param command between 0-27
+     * @param k       between 0-6
+     * @return the cell DIM * y + x
+     */
+
+    public static int cell(int command, int k) {
+        return CELLS[command * DIM + k];
+    }
+
+    /**
+     * This method returns the cells of the command's line.
+     *
+     * @param command between 0-27
+     * @return a 49 bit mask of the line
+     */
+
+    public static long lineMask(int command) {
+        return LINE_MASK[command];
+    }
+
+    /**
+     * This method returns the cells that have to contain a free space for the command to be
+     * listed by Board.possibleMovements.
+     *
+     * @param command between 0-27
+     * @return a 49 bit mask of the row and the column of the command's index
+     */
+
+    public static long movableMask(int command) {
+        return MOVABLE_MASK[command];
+    }
+
+    /**
+     * This method returns the commands whose result can depend on the first command having been made:
+     * the commands on the first line (except the first command itself), on the parallel lines
+     * next to it, and on all crossing lines.
+     *
+     * @param first between 0-27
+     * @return a 28 bit mask of the second commands that can be affected
+     */
+
+    public static int affectedMask(int first) {
+        return AFFECTED[first];
+    }
+}
@@ -0,0 +1,132 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class groups the valid double moves of a position by the board they lead to
+
+package Board;
+
+import java.util.Arrays;
+
+public class DoubleMoveClasses {
+
+    /**
+     * The valid double moves, encoded as in MoveSets, in the order of Board.doubleMovesList, and
+     * the class of each. A class holds the double moves that give the same board (before the balls
+     * are removed) and is identified by the Zobrist hash of that board; its representative is its
+     * first double move in list order.
+     *
+     * @invariant classOf[i] < classes for every i < moves
+     * @invariant representatives[c] is the first pair with class c
+     */
+    private final int[] pairs;
+    private final int[] classOf;
+    private final int[] representatives;
+    private final long[] hashes;
+    private int moves;
+    private int classes;
+
+    DoubleMoveClasses(int capacity) {
+        pairs = new int[capacity];
+        classOf = new int[capacity];
+        representatives = new int[capacity];
+        hashes = new long[capacity];
+    }
+
+    /**
+     * Adds a double move with the hash of the board it leads to, opening a new class for a new hash.
+     */
+    void add(int pair, long hash) {
+        int c = 0;
+        while (c < classes && hashes[c] != hash) {
+            c++;
+        }
+        if (c == classes) {
+            hashes[c] = hash;
+            representatives[c] = pair;
+            classes++;
+        }
+        pairs[moves] = pair;
+        classOf[moves] = c;
+        moves++;
+    }
+
+    /**
+     * This method returns the amount of distinct boards the double moves lead to.
+     *
+     * @return the amount of classes
+     */
+
+    public int size() {
+        return classes;
+    }
+
+    /**
+     * This method returns the amount of valid double moves over all classes.
+     *
+     * @return the amount of double moves
+     */
+
+    public int moves() {
+        return moves;
+    }
+
+    /**
+     * This method returns the double move standing for a class.
+     *
+     * @param c the class, between 0 and size() - 1
+     * @return the encoded double move that comes first in doubleMovesList
+     */
+
+    public int representative(int c) {
+        return representatives[c];
+    }
+
+    /**
+     * This method returns the Zobrist hash of the board the double moves of a class lead to.
+     *
+     * @param c the class, between 0 and size() - 1
+     * @return the hash of the board after both moves, before the balls are removed
+     */
+
+    public long hash(int c) {
+        return hashes[c];
+    }
+
+    /**
+     * This method returns every double move of a class.
+     *
+     * @param c the class, between 0 and size() - 1
+     * @return the encoded double moves in list order, starting with the representative
+     */
+
+    public int[] members(int c) {
+        int[] members = new int[moves];
+        int count = 0;
+        for (int i = 0; i < moves; i++) {
+            if (classOf[i] == c) {
+                members[count++] = pairs[i];
+            }
+        }
+        return Arrays.copyOf(members, count);
+    }
+
+    /**
+     * This method returns the class of a double move.
+     *
+     * @param first  the first command
+     * @param second the second command
+     * @return the class, -1 if the double move is not valid
+     */
+
+    public int classOf(int first, int second) {
+        int pair = MoveSets.pair(first, second);
+        for (int i = 0; i < moves; i++) {
+            if (pairs[i] == pair) {
+                return classOf[i];
+            }
+        }
+        return -1;
+    }
+}
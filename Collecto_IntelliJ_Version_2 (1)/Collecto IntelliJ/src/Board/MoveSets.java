@@ -0,0 +1,189 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class works on move sets stored in primitive masks, without boxing
+
+package Board;
+
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+public final class MoveSets {
+
+    public static final int COMMANDS = CommandTable.COMMANDS;
+
+    /**
+     * A set of single moves is a 28 bit mask, bit i standing for command i.
+     * A set of double moves is an array of 28 such masks, masks[i] holding the second
+     * moves that go with first move i.
+     * A single move is encoded as its command 0-27, a double move as
+     * COMMANDS + COMMANDS * first + second (28-811), so both kinds fit in one int without overlapping.
+     */
+    public static final int PAIRS = COMMANDS + COMMANDS * COMMANDS;
+
+    private MoveSets() {
+    }
+
+    /**
+     * This method encodes a double move.
+     *
+     * @param first  between 0-27
+     * @param second between 0-27
+     * @return the encoded double move
+     */
+
+    public static int pair(int first, int second) {
+        return COMMANDS + COMMANDS * first + second;
+    }
+
+    /**
+     * This method checks whether an encoded move is a double move.
+     *
+     * @param move an encoded move
+     * @return True if move encodes a double move
+     */
+
+    public static boolean isPair(int move) {
+        return move >= COMMANDS;
+    }
+
+    /**
+     * This method returns the first command of an encoded double move.
+     *
+     * @param pair the encoded double move
+     * @return the first command between 0-27
+     */
+
+    public static int first(int pair) {
+        return (pair - COMMANDS) / COMMANDS;
+    }
+
+    /**
+     * This method returns the second command of an encoded double move.
+     *
+     * @param pair the encoded double move
+     * @return the second command between 0-27
+     */
+
+    public static int second(int pair) {
+        return (pair - COMMANDS) % COMMANDS;
+    }
+
+    /**
+     * This method returns the amount of single moves in a mask.
+     *
+     * @param mask the set of single moves
+     * @return the size of the set
+     */
+
+    public static int size(int mask) {
+        return Integer.bitCount(mask);
+    }
+
+    /**
+     * This method returns the amount of double moves in a set.
+     *
+     * @param masks the set of double moves
+     * @return the size of the set
+     */
+
+    public static int size(int[] masks) {
+        int size = 0;
+        for (int mask : masks) {
+            size += Integer.bitCount(mask);
+        }
+        return size;
+    }
+
+    /**
+     * This method returns the index-th single move of a mask, counting from command 0.
+     *
+     * @param mask  the set of single moves
+     * @param index between 0 and size(mask) - 1
+     * @return the command
+     * @requires index to be in range 0 to size(mask) - 1
+     */
+
+    public static int get(int mask, int index) {
+        for (int k = 0; k < index; k++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * This method returns the index-th double move of a set, in the order of doubleMovesList.
+     *
+     * @param masks the set of double moves
+     * @param index between 0 and size(masks) - 1
+     * @return the encoded double move
+     * @requires index to be in range 0 to size(masks) - 1
+     */
+
+    public static int get(int[] masks, int index) {
+        for (int first = 0; first < masks.length; first++) {
+            int count = Integer.bitCount(masks[first]);
+            if (index < count) {
+                return pair(first, get(masks[first], index));
+            }
+            index -= count;
+        }
+        throw new IndexOutOfBoundsException("No double move at this index");
+    }
+
+    /**
+     * This method picks a single move of a mask uniformly at random.
+     *
+     * @param mask   the set of single moves
+     * @param random the generator to draw from
+     * @return the command, -1 if the set is empty
+     */
+
+    public static int random(int mask, Random random) {
+        return mask == 0 ? -1 : get(mask, random.nextInt(size(mask)));
+    }
+
+    /**
+     * This method picks a double move of a set uniformly at random.
+     *
+     * @param masks  the set of double moves
+     * @param random the generator to draw from
+     * @return the encoded double move, -1 if the set is empty
+     */
+
+    public static int random(int[] masks, Random random) {
+        int size = size(masks);
+        return size == 0 ? -1 : get(masks, random.nextInt(size));
+    }
+
+    /**
+     * This method hands every single move of a mask to an action, in increasing order.
+     *
+     * @param mask   the set of single moves
+     * @param action the action receiving the commands
+     */
+
+    public static void forEach(int mask, IntConsumer action) {
+        while (mask != 0) {
+            action.accept(Integer.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
+    }
+
+    /**
+     * This method hands every double move of a set to an action, encoded, in the order of doubleMovesList.
+     *
+     * @param masks  the set of double moves
+     * @param action the action receiving the encoded double moves
+     */
+
+    public static void forEach(int[] masks, IntConsumer action) {
+        for (int first = 0; first < masks.length; first++) {
+            for (int mask = masks[first]; mask != 0; mask &= mask - 1) {
+                action.accept(pair(first, Integer.numberOfTrailingZeros(mask)));
+            }
+        }
+    }
+}
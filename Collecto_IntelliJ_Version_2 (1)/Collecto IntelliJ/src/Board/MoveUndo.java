@@ -0,0 +1,57 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class records what a move changed on the board so it can be undone
+
+package Board;
+
+public class MoveUndo {
+    /**
+     * The command that was applied, the packed contents of its line before the move
+     * and the balls that were removed afterwards, one mask per color, together with the
+     * pairs of adjacent balls the board had before the removal and its version and hash before the move.
+     *
+     * @invariant removed[c] only contains cells that had color c + 1 before the removal
+     */
+    int command = -1;
+    int line;
+    final long[] removed = new long[BitBoard.COLORS];
+    long removedAll;
+    long horizontalPairs;
+    long verticalPairs;
+    long version;
+    long hash;
+
+    /**
+     * This method returns the command recorded by this undo record.
+     *
+     * @return the command between 0-27, or -1 if nothing was recorded
+     */
+
+    public int getCommand() {
+        return command;
+    }
+
+    /**
+     * This method returns the cells that were emptied after the move.
+     *
+     * @return a 49 bit mask of the removed balls
+     */
+
+    public long getRemovedMask() {
+        return removedAll;
+    }
+
+    /**
+     * This method returns how many balls of a color were removed after the move.
+     *
+     * @param color between 1-6
+     * @return the amount of removed balls of that color
+     */
+
+    public int getRemoved(int color) {
+        return Long.bitCount(removed[color - 1]);
+    }
+}
@@ -0,0 +1,66 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class defines the ranges a starting board has to fall in
+
+package Board;
+
+public class QualityBands {
+
+    /**
+     * Inclusive minimum and maximum of every measure of BoardQuality.
+     *
+     * @invariant every minimum is at most its maximum
+     */
+    private final int minSingleMoves;
+    private final int maxSingleMoves;
+    private final int minBranchingFactor;
+    private final int maxBranchingFactor;
+    private final int minScorePotential;
+    private final int maxScorePotential;
+
+    /**
+     * @requires every minimum to be at most its maximum
+     */
+    public QualityBands(int minSingleMoves, int maxSingleMoves,
+                        int minBranchingFactor, int maxBranchingFactor,
+                        int minScorePotential, int maxScorePotential) {
+        if (minSingleMoves > maxSingleMoves || minBranchingFactor > maxBranchingFactor
+                || minScorePotential > maxScorePotential) {
+            throw new IllegalArgumentException("A band minimum is above its maximum");
+        }
+        this.minSingleMoves = minSingleMoves;
+        this.maxSingleMoves = maxSingleMoves;
+        this.minBranchingFactor = minBranchingFactor;
+        this.maxBranchingFactor = maxBranchingFactor;
+        this.minScorePotential = minScorePotential;
+        this.maxScorePotential = maxScorePotential;
+    }
+
+    /**
+     * This method returns bands that accept every board.
+     *
+     * @return the widest bands
+     */
+
+    public static QualityBands any() {
+        return new QualityBands(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * This method checks whether every measure falls in its band.
+     *
+     * @param quality the measures of a board
+     * @return True if the board meets all the targets
+     */
+
+    public boolean accepts(BoardQuality quality) {
+        return quality.getSingleMoves() >= minSingleMoves && quality.getSingleMoves() <= maxSingleMoves
+                && quality.getBranchingFactor() >= minBranchingFactor
+                && quality.getBranchingFactor() <= maxBranchingFactor
+                && quality.getScorePotential() >= minScorePotential
+                && quality.getScorePotential() <= maxScorePotential;
+    }
+}
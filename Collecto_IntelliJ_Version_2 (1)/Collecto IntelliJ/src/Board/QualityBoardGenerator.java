@@ -0,0 +1,142 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class generates boards that meet quality targets, screening candidates on all cores
+
+package Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class QualityBoardGenerator {
+
+    /**
+     * Candidates are screened in rounds of ROUND seeds, a fork/join task screens at most LEAF of them itself.
+     */
+    public static final int ROUND = 1024;
+    private static final int LEAF = 32;
+
+    private final QualityBands bands;
+    private final ForkJoinPool pool;
+
+    /**
+     * Metrics over all generate calls: candidates screened and time spent screening them.
+     */
+    private final AtomicLong screened = new AtomicLong();
+    private final AtomicLong screeningNanos = new AtomicLong();
+
+    public QualityBoardGenerator(QualityBands bands) {
+        this(bands, ForkJoinPool.commonPool());
+    }
+
+    public QualityBoardGenerator(QualityBands bands, ForkJoinPool pool) {
+        this.bands = bands;
+        this.pool = pool;
+    }
+
+    /**
+     * This method generates boards until enough of them meet the bands, or until maxCandidates
+     * candidates have been screened.
+     *
+     * @param count         the amount of boards wanted
+     * @param maxCandidates the most candidates to screen
+     * @return the accepted boards, at most count of them, fewer if the limit was reached
+     * @ensures every returned board meets the bands and can be regenerated with initBoard(getSeed())
+     */
+
+    public List<Board> generate(int count, long maxCandidates) {
+        return generate(count, maxCandidates, BoardGenerator.nextSeed());
+    }
+
+    /**
+     * This method generates boards like generate(count, maxCandidates), drawing the candidate seeds
+     * from the given seed, so the same seed returns the same boards.
+     *
+     * @param count         the amount of boards wanted
+     * @param maxCandidates the most candidates to screen
+     * @param seed          the seed the candidate seeds are drawn from
+     * @return the accepted boards in the order of their candidates
+     */
+
+    public List<Board> generate(int count, long maxCandidates, long seed) {
+        List<Board> accepted = new ArrayList<>();
+        long done = 0;
+        while (accepted.size() < count && done < maxCandidates) {
+            int size = (int) Math.min(ROUND, maxCandidates - done);
+            long start = System.nanoTime();
+            accepted.addAll(pool.invoke(new ScreenTask(bands, seed, done, done + size)));
+            screeningNanos.addAndGet(System.nanoTime() - start);
+            screened.addAndGet(size);
+            done += size;
+        }
+        return accepted.size() > count ? new ArrayList<>(accepted.subList(0, count)) : accepted;
+    }
+
+    /**
+     * This method returns the amount of candidates screened so far.
+     *
+     * @return the amount of screened candidates
+     */
+
+    public long getScreened() {
+        return screened.get();
+    }
+
+    /**
+     * This method returns the screening throughput over all generate calls.
+     *
+     * @return candidates screened per second, 0 if none were screened
+     */
+
+    public double getCandidatesPerSecond() {
+        long nanos = screeningNanos.get();
+        return nanos == 0 ? 0 : screened.get() * 1e9 / nanos;
+    }
+
+    /**
+     * Screens the candidates first (included) to last (excluded) of a seed, splitting the range
+     * over the pool until it is at most LEAF long.
+     */
+    private static class ScreenTask extends RecursiveTask<List<Board>> {
+        private static final long serialVersionUID = 1L;
+
+        private final QualityBands bands;
+        private final long seed;
+        private final long first;
+        private final long last;
+
+        ScreenTask(QualityBands bands, long seed, long first, long last) {
+            this.bands = bands;
+            this.seed = seed;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected List<Board> compute() {
+            if (last - first > LEAF) {
+                long middle = (first + last) >>> 1;
+                ScreenTask left = new ScreenTask(bands, seed, first, middle);
+                left.fork();
+                List<Board> right = new ScreenTask(bands, seed, middle, last).compute();
+                List<Board> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            List<Board> result = new ArrayList<>();
+            for (long i = first; i < last; i++) {
+                Board board = new Board();
+                board.initBoard(new SplitMix64(seed + i).nextLong());
+                if (bands.accepts(BoardQuality.of(board))) {
+                    result.add(board);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class defines a small seedable random number generator
+
+package Board;
+
+public class SplitMix64 {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The state only ever moves forward by GOLDEN_GAMMA, so the same seed always gives the same numbers.
+     * An instance is not meant to be shared between threads.
+     */
+    private long state;
+
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * This method returns the next 64 random bits.
+     *
+     * @return a random long
+     */
+
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * This method returns a random integer in range 0 (included) to bound (excluded).
+     *
+     * @param bound the amount of possible results
+     * @return a random integer between 0 and bound - 1
+     * @requires bound > 0
+     */
+
+    public int nextInt(int bound) {
+        //the high 32 bits scaled to the bound, the bias is below 2^-32 * bound
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+}
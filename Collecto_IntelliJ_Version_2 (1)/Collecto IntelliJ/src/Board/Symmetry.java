@@ -0,0 +1,116 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class holds the 8 rotations and reflections of the board and their effect on the commands
+
+package Board;
+
+public final class Symmetry {
+
+    public static final int DIM = Board.DIM;
+    public static final int CELLS = DIM * DIM;
+    public static final int COMMANDS = CommandTable.COMMANDS;
+
+    /**
+     * The symmetries of the square: 0-3 rotate the board 0, 90, 180 and 270 degrees clockwise,
+     * 4-7 first mirror the board left to right and then rotate it the same way. 0 is the identity.
+     */
+    public static final int SYMMETRIES = 8;
+    public static final int IDENTITY = 0;
+
+    /**
+     * CELL[t * CELLS + c] is the cell that cell c ends up in under symmetry t, COMMAND[t * COMMANDS + m]
+     * the command that does to the transformed board what command m does to the original one.
+     * A line moved towards one side is moved towards the image of that side, so left/right and up/down
+     * swap under the mirror and rows and columns swap under a quarter turn.
+     *
+     * @invariant the tables are filled once and never changed
+     */
+    private static final int[] CELL = new int[SYMMETRIES * CELLS];
+    private static final int[] COMMAND = new int[SYMMETRIES * COMMANDS];
+    private static final int[] INVERSE = new int[SYMMETRIES];
+
+    static {
+        for (int t = 0; t < SYMMETRIES; t++) {
+            for (int c = 0; c < CELLS; c++) {
+                int x = c % DIM;
+                int y = c / DIM;
+                if (t >= 4) {
+                    x = DIM - 1 - x;
+                }
+                for (int r = 0; r < t % 4; r++) {
+                    int rotated = DIM - 1 - y;
+                    y = x;
+                    x = rotated;
+                }
+                CELL[t * CELLS + c] = DIM * y + x;
+            }
+        }
+
+        for (int t = 0; t < SYMMETRIES; t++) {
+            //the inverse brings every cell back
+            for (int u = 0; u < SYMMETRIES; u++) {
+                boolean inverse = true;
+                for (int c = 0; c < CELLS && inverse; c++) {
+                    inverse = CELL[u * CELLS + CELL[t * CELLS + c]] == c;
+                }
+                if (inverse) {
+                    INVERSE[t] = u;
+                }
+            }
+            //the image of a command is the command whose cells, counted from the side the tiles slide to,
+            //are the images of the cells of the original command in the same order
+            for (int m = 0; m < COMMANDS; m++) {
+                for (int n = 0; n < COMMANDS; n++) {
+                    boolean same = true;
+                    for (int k = 0; k < DIM && same; k++) {
+                        same = CommandTable.cell(n, k) == CELL[t * CELLS + CommandTable.cell(m, k)];
+                    }
+                    if (same) {
+                        COMMAND[t * COMMANDS + m] = n;
+                    }
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * This method returns the cell a cell is moved to by a symmetry.
+     *
+     * @param symmetry between 0-7
+     * @param cell     the cell DIM * y + x
+     * @return the transformed cell
+     */
+
+    public static int cell(int symmetry, int cell) {
+        return CELL[symmetry * CELLS + cell];
+    }
+
+    /**
+     * This method translates a command to the frame of a symmetry.
+     *
+     * @param symmetry between 0-7
+     * @param command  between 0-27
+     * @return the command with the same effect on the transformed board
+     */
+
+    public static int command(int symmetry, int command) {
+        return COMMAND[symmetry * COMMANDS + command];
+    }
+
+    /**
+     * This method returns the symmetry that undoes another one.
+     *
+     * @param symmetry between 0-7
+     * @return the inverse symmetry between 0-7
+     */
+
+    public static int inverse(int symmetry) {
+        return INVERSE[symmetry];
+    }
+}
@@ -0,0 +1,212 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// This class keeps a bounded pool of generated boards ready for new games
+
+package ClientServer;
+
+import Board.Board;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoardPool implements Runnable {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * The ready boards. Every board in the pool has been through initBoard, so it has a
+     * move and no adjacent balls. The producer blocks while the pool is full.
+     */
+    private final BlockingQueue<Board> boards;
+    private Thread producer;
+    private volatile boolean running;
+
+    /**
+     * Metrics: boards taken from the pool and boards generated on the caller's thread because the
+     * pool was empty, boards added by the producer, and the time spent generating all boards.
+     */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong generationNanos = new AtomicLong();
+    private final AtomicLong maxGenerationNanos = new AtomicLong();
+
+    /**
+     * The time the producer has been running: the periods before the last stop and, while it runs,
+     * the time since the last start.
+     */
+    private volatile long startNanos;
+    private volatile long stoppedNanos;
+
+    public BoardPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BoardPool(int capacity) {
+        boards = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * This method starts the producer on a low priority daemon thread.
+     *
+     * @ensures the pool is topped up to its capacity in the background
+     */
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        producer = new Thread(this, "board-pool");
+        producer.setDaemon(true);
+        producer.setPriority(Thread.MIN_PRIORITY);
+        producer.start();
+    }
+
+    /**
+     * This method stops the producer and waits until its thread has ended, so a following start never
+     * runs two producers. The boards already in the pool can still be taken.
+     */
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        stoppedNanos += System.nanoTime() - startNanos;
+        producer.interrupt();
+        boolean interrupted = false;
+        while (producer.isAlive()) {
+            try {
+                //a board being generated is finished first, that takes milliseconds
+                producer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        producer = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                boards.put(generate());
+                refills.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method takes a ready board from the pool without waiting. If the pool is empty,
+     * the board is generated on the calling thread instead.
+     *
+     * @return a board with a move and no adjacent balls
+     */
+
+    public Board take() {
+        Board board = boards.poll();
+        if (board != null) {
+            hits.incrementAndGet();
+            return board;
+        }
+        misses.incrementAndGet();
+        return generate();
+    }
+
+    /**
+     * Generates a board and records how long it took.
+     */
+    private Board generate() {
+        long start = System.nanoTime();
+        Board board = new Board();
+        board.initBoard();
+        long time = System.nanoTime() - start;
+        generated.incrementAndGet();
+        generationNanos.addAndGet(time);
+        maxGenerationNanos.accumulateAndGet(time, Math::max);
+        return board;
+    }
+
+    /**
+     * This method returns the amount of boards ready to be taken.
+     *
+     * @return the size of the pool
+     */
+
+    public int size() {
+        return boards.size();
+    }
+
+    /**
+     * This method returns the part of the take calls that got a board from the pool.
+     *
+     * @return the hit rate between 0 and 1, 1 if nothing was taken yet
+     */
+
+    public double getHitRate() {
+        long taken = hits.get() + misses.get();
+        return taken == 0 ? 1 : (double) hits.get() / taken;
+    }
+
+    /**
+     * This method returns the amount of boards the producer has added to the pool.
+     *
+     * @return the amount of refills
+     */
+
+    public long getRefills() {
+        return refills.get();
+    }
+
+    /**
+     * This method returns how many boards the producer added per second while it was running.
+     *
+     * @return the refill rate, 0 if the producer was never started
+     */
+
+    public synchronized double getRefillRate() {
+        long elapsed = stoppedNanos + (running ? System.nanoTime() - startNanos : 0);
+        return elapsed <= 0 ? 0 : refills.get() * 1e9 / elapsed;
+    }
+
+    /**
+     * This method returns the mean time it took to generate a board, in the producer or on a miss.
+     *
+     * @return the mean generation latency in microseconds, 0 if no board was generated
+     */
+
+    public double getMeanGenerationMicros() {
+        long count = generated.get();
+        return count == 0 ? 0 : generationNanos.get() / 1000.0 / count;
+    }
+
+    /**
+     * This method returns the longest time it took to generate a board.
+     *
+     * @return the maximum generation latency in microseconds
+     */
+
+    public double getMaxGenerationMicros() {
+        return maxGenerationNanos.get() / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Board pool: %d ready, hit rate %.2f, %d refills (%.1f/s), generation mean %.1f us, max %.1f us",
+                size(), getHitRate(), getRefills(), getRefillRate(),
+                getMeanGenerationMicros(), getMaxGenerationMicros());
+    }
+}
@@ -14,12 +14,15 @@ import Player.Player;
 import Player.ComputerPlayer;
 import Player.HumanPlayer;
 import Protocol.Messages;
+import Strategies.AlphaBetaStrategy;
+import Strategies.EndgameSolver;
+import Strategies.MctsStrategy;
+import Strategies.PortfolioStrategy;
 import Strategies.SmartStrategy;
 import Views.ClientTUI;
 
 import java.io.*;
 import java.net.Socket;
-import java.util.List;
 import java.util.Scanner;
 import java.net.InetAddress;
 
@@ -206,30 +209,6 @@ public class Client {
         }
     }
 
-    public int singleHint() {
-        if (board.singleMovePossible()) { // if a single move is possible, show one randomly
-            List<Integer> moves = board.singleMovesList();
-
-            int index = (int) (Math.random() * moves.size());
-
-            return moves.get(index);
-        }
-
-        return -1;
-    }
-
-    public Integer[] doubleHint() {
-        if (board.doubleMovePossible()) {
-            List<Integer[]> moves = board.doubleMovesList();
-
-            int index = (int) (Math.random() * moves.size());
-
-            return moves.get(index);
-        }
-
-        return null;
-    }
-
     public Board getBoard() {
         return board;
     }
@@ -245,7 +224,7 @@ public class Client {
 
             if (answer.equalsIgnoreCase("AI")) {
                 while (askDifficulty) {
-                    view.displayMessage("Would you like to be a naive or a smart AI?");
+                    view.displayMessage("Would you like to be a naive, a smart, an expert, an mcts or a portfolio AI?");
 
                     answer = view.getStringInput();
 
@@ -259,6 +238,36 @@ public class Client {
                     } else if (answer.equalsIgnoreCase("smart")) {
                         player = new ComputerPlayer(name, view, this, new SmartStrategy());
 
+                        view.displayMessage("About to be queued as a " + answer.toLowerCase() + " AI. " +
+                                "Greetings future overlord!");
+
+                        askDifficulty = false;
+                    } else if (answer.equalsIgnoreCase("expert")) {
+                        ComputerPlayer expert = new ComputerPlayer(name, view, this,
+                                new EndgameSolver(new AlphaBetaStrategy()));
+                        expert.setPondering(true);
+                        player = expert;
+
+                        view.displayMessage("About to be queued as an " + answer.toLowerCase() + " AI. " +
+                                "Greetings future overlord!");
+
+                        askDifficulty = false;
+                    } else if (answer.equalsIgnoreCase("mcts")) {
+                        ComputerPlayer mcts = new ComputerPlayer(name, view, this,
+                                new EndgameSolver(new MctsStrategy()));
+                        mcts.setPondering(true);
+                        player = mcts;
+
+                        view.displayMessage("About to be queued as an " + answer.toLowerCase() + " AI. " +
+                                "Greetings future overlord!");
+
+                        askDifficulty = false;
+                    } else if (answer.equalsIgnoreCase("portfolio")) {
+                        // the search answers unless it runs out of time, then the smart strategy does
+                        player = new ComputerPlayer(name, view, this,
+                                new PortfolioStrategy(PortfolioStrategy.DEFAULT_BUDGET_MILLIS,
+                                        new EndgameSolver(new AlphaBetaStrategy()), new SmartStrategy()));
+
                         view.displayMessage("About to be queued as a " + answer.toLowerCase() + " AI. " +
                                 "Greetings future overlord!");
 
@@ -295,10 +304,11 @@ public class Client {
 
                 // Make a board instance for this client
                 board = new Board();
+                player.resetScore();
 
                 for (int y = 0; y < 7; y++) {
                     for (int x = 0; x < 7; x++) {
-                        board.fields[x][y] = Integer.parseInt(split[7 * y + x + 1]);
+                        board.setTile(x, y, Integer.parseInt(split[7 * y + x + 1]));
                     }
                 }
 
@@ -386,8 +396,10 @@ public class Client {
     }
 
     public void playOtherTurn() {
-        // Wait to receive the move message
+        // Search on the opponent's time while waiting for the move message
+        player.startPondering(board);
         String move = getMessage();
+        player.stopPondering();
 
         if (move == null) {
             shutDown();
@@ -397,11 +409,11 @@ public class Client {
             if (split[0].equals(Messages.MOVE)) { // if the message was a move
                 if (split.length < 3) { // Single move
                     if (board.singleMoveValid(Integer.parseInt(split[1]))) {
-                        player.makeSingleMove(board, Integer.parseInt(split[1]));
+                        player.makeOpponentSingleMove(board, Integer.parseInt(split[1]));
                     }
                 } else { // Double move
                     if (board.doubleMoveValid(Integer.parseInt(split[1]), Integer.parseInt(split[2]))) {
-                        player.makeDoubleMove(board, Integer.parseInt(split[1]), Integer.parseInt(split[2]));
+                        player.makeOpponentDoubleMove(board, Integer.parseInt(split[1]), Integer.parseInt(split[2]));
                     }
                 }
 
@@ -430,7 +442,7 @@ public class Client {
             case Messages.VICTORY -> {
                 view.displayMessage("The winner of this match was " + split[2] + "!");
                 view.displayMessage("Would you like to play again? (yes / no)");
-                answer = view.getStringInput();
+                String answer = view.getStringInput();
                 if (!answer.equalsIgnoreCase("yes")
                         && !answer.equalsIgnoreCase("y")) {
                     playing = false;
@@ -442,7 +454,7 @@ public class Client {
             case Messages.DISCONNECT -> {
                 view.displayMessage("Your opponent disconnected. This counts as a win for you!");
                 view.displayMessage("Would you like to queue again? (yes / no)");
-                answer = view.getStringInput();
+                String answer = view.getStringInput();
                 if (!answer.equalsIgnoreCase("yes")
                         && !answer.equalsIgnoreCase("y")) {
                     playing = false;
@@ -32,12 +32,15 @@ public class Server implements Runnable {
 
     private List<Game> games;
 
+    private final BoardPool boardPool; // Boards generated ahead of the games that need them
+
     public Server() {
         clients = new ArrayList<>();
         games = new ArrayList<>();
         queue = new ArrayList<>();
         C2CMap = new HashMap<>();
         P2BMap = new HashMap<>();
+        boardPool = new BoardPool();
     }
 
     @Override
@@ -47,6 +50,7 @@ public class Server implements Runnable {
         while (openNewSocket) {
             try {
                 setup();
+                boardPool.start();
 
                 while (true) {
                     // Open the server socket to accept incoming client connections
@@ -109,6 +113,10 @@ public class Server implements Runnable {
         }
     }
 
+    public BoardPool getBoardPool() {
+        return boardPool;
+    }
+
     public void removeClient(ClientHandler client) {
         this.clients.remove(client);
     }
@@ -177,8 +185,8 @@ public class Server implements Runnable {
     void gameStart(ClientHandler c1, ClientHandler c2, Board board) {
         // Initialize a new board for the 2 clients
         if (board == null) {
-            board = new Board();
-            board.initBoard();
+            board = boardPool.take();
+            System.out.println(boardPool);
         }
 
         // Initialize a new game object with those two clients
@@ -194,6 +202,7 @@ public class Server implements Runnable {
         }
 
         System.out.println(board.toString());
+        System.out.println("Board seed: " + board.getSeed());
 
         if (clients.contains(c1)) {
             c1.sendMessage(message + Messages.DELIMITER + c1.getName() + Messages.DELIMITER + c2.getName());
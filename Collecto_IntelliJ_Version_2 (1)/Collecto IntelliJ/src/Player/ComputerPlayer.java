@@ -8,13 +8,17 @@
 package Player;
 
 import Board.Board;
+import Board.MoveSets;
 import ClientServer.Client;
+import Strategies.AsyncStrategyAdapter;
 import Strategies.NaiveStrategy;
+import Strategies.SearchFuture;
 import Strategies.Strategy;
 import Views.View;
 
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
 
 public class ComputerPlayer extends Player{
     private String name;
@@ -23,6 +27,14 @@ public class ComputerPlayer extends Player{
 
     private Client client;
 
+    private Ponderer ponderer;
+
+    /**
+     * Runs the strategy in the background when a move budget is set, null otherwise.
+     */
+    private AsyncStrategyAdapter async;
+    private long moveBudgetMillis;
+
     public ComputerPlayer (String name, View view, Client client, Strategy strategy) {
         super(strategy.getName() + " " + name);
 
@@ -45,14 +57,123 @@ public class ComputerPlayer extends Player{
 
     @Override
     public int determineSingleMove(Board board) {
+        strategy.setCollected(scored, opponentScored);
+        if (ponderer != null) {
+            int turn = ponderer.lookup(board);
+            if (turn != -1 && !MoveSets.isPair(turn)) {
+                return turn;
+            }
+        }
+        if (async != null) {
+            int turn = searchWithinBudget(board);
+            if (turn != -1 && !MoveSets.isPair(turn)) {
+                return turn;
+            }
+        }
         return strategy.determineSingleMove(board);
     }
 
     @Override
     public int[] determineDoubleMove(Board board) {
+        strategy.setCollected(scored, opponentScored);
+        if (ponderer != null) {
+            int turn = ponderer.lookup(board);
+            if (turn != -1 && MoveSets.isPair(turn)) {
+                return new int[] {MoveSets.first(turn), MoveSets.second(turn)};
+            }
+        }
+        if (async != null) {
+            int turn = searchWithinBudget(board);
+            if (turn != -1 && MoveSets.isPair(turn)) {
+                return new int[] {MoveSets.first(turn), MoveSets.second(turn)};
+            }
+        }
         return strategy.determineDoubleMove(board);
     }
 
+    /**
+     * This method limits the time a move may take. The strategy then searches in the background and
+     * when the budget runs out, the best turn found so far is played and the search is interrupted.
+     *
+     * @param millis the budget per move in milliseconds, 0 for no limit
+     */
+
+    public void setMoveBudget(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("The move budget can not be negative");
+        }
+        if (async != null) {
+            async.shutdown();
+            async = null;
+        }
+        moveBudgetMillis = millis;
+        if (millis > 0) {
+            async = new AsyncStrategyAdapter(strategy);
+        }
+    }
+
+    public long getMoveBudget() {
+        return moveBudgetMillis;
+    }
+
+    public AsyncStrategyAdapter getAsyncStrategy() {
+        return async;
+    }
+
+    /**
+     * Searches the turn in the background and waits no longer than the move budget.
+     */
+    private int searchWithinBudget(Board board) {
+        SearchFuture future = async.search(board, System.nanoTime() + moveBudgetMillis * 1_000_000L);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return future.bestSoFar();
+        } catch (ExecutionException e) {
+            return future.bestSoFar();
+        }
+    }
+
+    /**
+     * This method turns pondering on or off. While pondering, the likely replies of the opponent are
+     * searched on its time, and a reply that was searched is answered at once.
+     *
+     * @param pondering True to ponder
+     */
+
+    public void setPondering(boolean pondering) {
+        if (pondering && ponderer == null) {
+            ponderer = new Ponderer(strategy, Ponderer.DEFAULT_REPLIES);
+        } else if (!pondering && ponderer != null) {
+            ponderer.shutdown();
+            ponderer = null;
+        }
+    }
+
+    public Ponderer getPonderer() {
+        return ponderer;
+    }
+
+    @Override
+    public void startPondering(Board board) {
+        if (ponderer != null && !board.gameOver()) {
+            if (async != null) {
+                //an interrupted search may still hold the strategy
+                async.awaitIdle();
+            }
+            ponderer.start(board, scored, opponentScored);
+        }
+    }
+
+    @Override
+    public void stopPondering() {
+        if (ponderer != null) {
+            ponderer.stop();
+        }
+    }
+
     @Override
     public void makeDoubleMove(Board board, int move1, int move2) {
         // Apply move to the board
@@ -77,6 +198,10 @@ public class ComputerPlayer extends Player{
     }
 
     public void setStrategy(Strategy strategy) {
+        boolean pondering = ponderer != null;
+        setPondering(false);
         this.strategy = strategy;
+        setPondering(pondering);
+        setMoveBudget(moveBudgetMillis);
     }
 }
@@ -0,0 +1,198 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Analyses the position of a human player in the background so a hint is ready at once
+
+package Player;
+
+import Board.Board;
+import Board.MoveSets;
+import Strategies.AlphaBetaStrategy;
+import Strategies.MoveOrdering;
+import Strategies.TranspositionTable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class HintService {
+
+    /**
+     * The time the analysis of a position may take.
+     */
+    public static final long DEFAULT_BUDGET_MILLIS = 5000;
+
+    /**
+     * The amount of positions remembered before the cache starts over.
+     */
+    public static final int MAX_CACHED = 4096;
+
+    private static final int TABLE_BITS = 18;
+
+    private final AlphaBetaStrategy strategy;
+    private final ExecutorService executor;
+
+    /**
+     * The best turn found for every analysed position, encoded as in MoveSets, and the depth in turns
+     * it was searched to, keyed by TranspositionTable.key of the position and the balls both players
+     * had collected, since those change the best turn. A depth of 0 means the turn was only picked by
+     * the balls it removes.
+     */
+    private final Map<Long, int[]> hints = new ConcurrentHashMap<>();
+    private Future<?> task;
+
+    /**
+     * The balls collected when the last analysis started, hint and getDepth look positions up with them.
+     */
+    private int[] ownCollected = new int[Board.TILES.length];
+    private int[] opponentCollected = new int[Board.TILES.length];
+
+    public HintService() {
+        this(new AlphaBetaStrategy(DEFAULT_BUDGET_MILLIS, 1, TABLE_BITS));
+    }
+
+    /**
+     * @param strategy the search used for the analysis, only used by the background thread
+     */
+    public HintService(AlphaBetaStrategy strategy) {
+        this.strategy = strategy;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * This method starts analysing a position in the background, and stops analysing the previous one.
+     * It returns at once.
+     *
+     * @param board the position the human has to move in, it is copied
+     */
+
+    public void start(Board board) {
+        start(board, new int[Board.TILES.length], new int[Board.TILES.length]);
+    }
+
+    /**
+     * This method starts analysing a position in the background, scoring from the balls both players
+     * have collected, and stops analysing the previous one. It returns at once.
+     *
+     * @param board    the position the human has to move in, it is copied
+     * @param own      the balls the human collected, index color - 1, copied
+     * @param opponent the balls the opponent collected, index color - 1, copied
+     */
+
+    public void start(Board board, int[] own, int[] opponent) {
+        stop();
+        ownCollected = own.clone();
+        opponentCollected = opponent.clone();
+        if (board.gameOver()) {
+            return;
+        }
+        if (hints.size() >= MAX_CACHED) {
+            hints.clear();
+        }
+        Board copy = board.deepCopy();
+        int[] ownCopy = ownCollected;
+        int[] opponentCopy = opponentCollected;
+        task = executor.submit(() -> analyse(copy, ownCopy, opponentCopy));
+    }
+
+    /**
+     * This method stops the analysis. It does not wait for the background thread to let go of the
+     * search, the next analysis simply queues behind it.
+     */
+
+    public void stop() {
+        if (task != null) {
+            task.cancel(true);
+            task = null;
+        }
+    }
+
+    /**
+     * This method returns the best turn found so far for a position, with the balls collected
+     * given to the last start, without waiting.
+     *
+     * @param board the position
+     * @return the turn encoded as in MoveSets, -1 if the position has not been analysed yet
+     * @ensures a result other than -1 is a valid single move or double move of the board
+     */
+
+    public int hint(Board board) {
+        int[] hint = hints.get(TranspositionTable.key(board, ownCollected, opponentCollected));
+        if (hint == null) {
+            return -1;
+        }
+        int turn = hint[0];
+        boolean valid = MoveSets.isPair(turn)
+                ? board.doubleMoveValid(MoveSets.first(turn), MoveSets.second(turn))
+                : board.singleMoveValid(turn);
+        return valid ? turn : -1;
+    }
+
+    /**
+     * This method returns how deep the hint for a position was searched, with the balls collected
+     * given to the last start.
+     *
+     * @param board the position
+     * @return the depth in turns, 0 for a hint that only looks at the balls removed, -1 if there is no hint
+     */
+
+    public int getDepth(Board board) {
+        int[] hint = hints.get(TranspositionTable.key(board, ownCollected, opponentCollected));
+        return hint == null ? -1 : hint[1];
+    }
+
+    /**
+     * This method forgets all hints, for example when a new game starts.
+     */
+
+    public void clear() {
+        hints.clear();
+    }
+
+    /**
+     * This method stops the background thread for good.
+     */
+
+    public void shutdown() {
+        stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Publishes the turn removing the most balls first, then runs one search that publishes the best
+     * turn of every depth it completes, until it runs out of time or the thread is interrupted.
+     */
+    private void analyse(Board board, int[] own, int[] opponent) {
+        long key = TranspositionTable.key(board, own, opponent);
+        int[] turns = board.legalTurns();
+        new MoveOrdering(0).order(board, turns, -1, -1);
+        publish(key, turns[0], 0);
+
+        strategy.setCollected(own, opponent);
+        strategy.setProgressListener((turn, depth) -> publish(key, turn, depth));
+        try {
+            if (board.singleMovePossible()) {
+                strategy.determineSingleMove(board);
+            } else {
+                strategy.determineDoubleMove(board);
+            }
+        } finally {
+            strategy.setProgressListener(null);
+        }
+    }
+
+    private void publish(long key, int turn, int depth) {
+        int[] previous = hints.get(key);
+        if (previous == null || previous[1] <= depth) {
+            hints.put(key, new int[] {turn, depth});
+        }
+    }
+}
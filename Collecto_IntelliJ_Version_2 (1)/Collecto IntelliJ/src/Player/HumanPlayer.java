@@ -8,6 +8,7 @@
 package Player;
 
 import Board.Board;
+import Board.MoveSets;
 import ClientServer.Client;
 import Constants.ClientCommands;
 import Exceptions.WrongFormatException;
@@ -20,12 +21,18 @@ public class HumanPlayer extends Player {
 
     private final Client client;
 
+    private final HintService hints = new HintService();
+
     public HumanPlayer(String name, View view, Client client) {
         super(name);
         this.view = view;
         this.client = client;
     }
 
+    public HintService getHintService() {
+        return hints;
+    }
+
     @Override
     public void makeDoubleMove(Board board, int move1, int move2) {
         // Apply move to the board
@@ -33,7 +40,7 @@ public class HumanPlayer extends Player {
         board.moveLine(move2);
 
         // Remove adjacent balls and add to the score
-        board.removeBalls();
+        board.removeBalls(this.scored);
     }
 
     @Override
@@ -42,13 +49,21 @@ public class HumanPlayer extends Player {
         board.moveLine(move);
 
         // Remove adjacent balls and add to the score
-        board.removeBalls();
+        board.removeBalls(this.scored);
     }
 
     @Override
     public int[] determineDoubleMove(Board board) {
         view.displayMessage("Only a double move is possible!");
+        hints.start(board, scored, opponentScored);
+        try {
+            return readDoubleMove(board);
+        } finally {
+            hints.stop();
+        }
+    }
 
+    private int[] readDoubleMove(Board board) {
         while(true) {
             // Get the first move
             int move1;
@@ -89,7 +104,15 @@ public class HumanPlayer extends Player {
     @Override
     public int determineSingleMove(Board board) {
         view.displayMessage("A single move is possible!");
+        hints.start(board, scored, opponentScored);
+        try {
+            return readSingleMove(board);
+        } finally {
+            hints.stop();
+        }
+    }
 
+    private int readSingleMove(Board board) {
         while (true) {
                 int move = -1;
 
@@ -129,14 +152,16 @@ public class HumanPlayer extends Player {
                     break;
 
                 case ClientCommands.HINT:
-                    if (client.getBoard().singleMovePossible()) { // if single move possible
-                        int move = client.singleHint();
-
-                        System.out.println("A single move is possible with index: " + move);
+                    // never waits for the analysis, it answers with the best turn found so far
+                    Board board = client.getBoard();
+                    int turn = hints.hint(board);
+                    if (turn == -1) {
+                        System.out.println("Still looking at the board, ask again in a moment.");
+                    } else if (MoveSets.isPair(turn)) {
+                        System.out.println("A double move is possible with indices: " + MoveSets.first(turn)
+                                + " " + MoveSets.second(turn) + depthNote(board));
                     } else {
-                        Integer[] moves = client.doubleHint();
-
-                        System.out.println("A double move is possible with indices: " + moves[0] + moves[1]);
+                        System.out.println("A single move is possible with index: " + turn + depthNote(board));
                     }
                     break;
 
@@ -147,4 +172,9 @@ public class HumanPlayer extends Player {
             System.out.println("This is not an available command. Try again!");
         }
     }
+
+    private String depthNote(Board board) {
+        int depth = hints.getDepth(board);
+        return depth > 0 ? " (looked " + depth + " turns ahead)" : "";
+    }
 }
@@ -14,6 +14,11 @@ public abstract class Player {
     protected Strategy strategy;
     public int[] scored = new int[6];
 
+    /**
+     * The balls the opponent collected, index color - 1, so a strategy can score positions exactly.
+     */
+    public int[] opponentScored = new int[6];
+
     private String name;
 
     Player(String name) {
@@ -28,12 +33,46 @@ public abstract class Player {
 
     public abstract void makeDoubleMove(Board board, int move1, int move2);
 
+    /**
+     * Called when the opponent starts thinking about its turn on board. Does nothing by default.
+     */
+    public void startPondering(Board board) {
+    }
+
+    /**
+     * Called when the turn of the opponent has arrived, before it is made. Does nothing by default.
+     */
+    public void stopPondering() {
+    }
+
     public void updateScore(Board board) {
-        int[] scr;
-        scr = board.removeBalls();
-        for (int i = 0; i < this.scored.length; i++) {
-            this.scored[i] += scr[i];
-        }
+        board.removeBalls(this.scored);
+    }
+
+    /**
+     * This method applies a single move of the opponent and counts the removed balls as the opponent's.
+     *
+     * @param board the board of the game
+     * @param move  the move between 0-27
+     */
+
+    public void makeOpponentSingleMove(Board board, int move) {
+        board.moveLine(move);
+        board.removeBalls(this.opponentScored);
+    }
+
+    /**
+     * This method applies a double move of the opponent and counts the removed balls as the opponent's.
+     *
+     * @param board the board of the game
+     * @param move1 the first move between 0-27
+     * @param move2 the second move between 0-27
+     */
+
+    public void makeOpponentDoubleMove(Board board, int move1, int move2) {
+        board.moveLine(move1);
+        board.moveLine(move2);
+        board.removeBalls(this.opponentScored);
     }
 
     public int getScore(Board board) {
@@ -42,5 +81,6 @@ public abstract class Player {
 
     public void resetScore() {
         this.scored = new int[6];
+        this.opponentScored = new int[6];
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Searches the likely replies of the opponent while the opponent thinks
+
+package Player;
+
+import Board.Board;
+import Board.MoveSets;
+import Board.MoveUndo;
+import Strategies.MoveOrdering;
+import Strategies.Strategy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Ponderer {
+
+    /**
+     * The amount of opponent replies searched, the ones removing the most balls first.
+     */
+    public static final int DEFAULT_REPLIES = 4;
+
+    private final Strategy strategy;
+    private final int replies;
+    private final ExecutorService executor;
+
+    /**
+     * Our turn, encoded as in MoveSets, for every position reached by a pondered reply,
+     * keyed by the Zobrist hash of the position.
+     */
+    private final Map<Long, Integer> answers = new ConcurrentHashMap<>();
+    private Future<?> task;
+
+    private final AtomicLong pondered = new AtomicLong();
+    private long hits;
+    private long misses;
+
+    /**
+     * @param strategy the strategy that searches the positions, only used by one thread at a time
+     * @param replies  the amount of opponent replies to search
+     * @requires the strategy stops its own threads before a determine method returns, also when interrupted
+     */
+    public Ponderer(Strategy strategy, int replies) {
+        this.strategy = strategy;
+        this.replies = replies;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ponder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * This method starts searching the likely replies to a position in the background.
+     * The answers of an earlier start are forgotten.
+     *
+     * @param board the position the opponent has to move in, it is copied
+     * @requires the previous pondering to be stopped
+     */
+
+    public void start(Board board) {
+        start(board, new int[Board.TILES.length], new int[Board.TILES.length]);
+    }
+
+    /**
+     * This method starts searching the likely replies to a position in the background, scoring from
+     * the balls both players have collected. The answers of an earlier start are forgotten.
+     *
+     * @param board    the position the opponent has to move in, it is copied
+     * @param own      the balls we collected, index color - 1, copied
+     * @param opponent the balls the opponent collected, index color - 1, copied
+     * @requires the previous pondering to be stopped
+     */
+
+    public void start(Board board, int[] own, int[] opponent) {
+        answers.clear();
+        Board copy = board.deepCopy();
+        int[] ownCopy = own.clone();
+        int[] opponentCopy = opponent.clone();
+        task = executor.submit(() -> ponder(copy, ownCopy, opponentCopy));
+    }
+
+    /**
+     * This method cancels the background search and waits until it has let go of the strategy,
+     * so the strategy can be used right after.
+     */
+
+    public void stop() {
+        if (task == null) {
+            return;
+        }
+        task.cancel(true);
+        task = null;
+        try {
+            //the executor runs one task at a time, so this only runs once the cancelled search is done
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * This method returns the answer found for a position while pondering.
+     *
+     * @param board the position we have to move in
+     * @return our turn encoded as in MoveSets, -1 if the position was not pondered
+     * @ensures a result other than -1 is a valid single move or double move of the board
+     */
+
+    public int lookup(Board board) {
+        Integer turn = answers.get(board.zobristHash());
+        boolean valid = turn != null && (MoveSets.isPair(turn)
+                ? board.doubleMoveValid(MoveSets.first(turn), MoveSets.second(turn))
+                : board.singleMoveValid(turn));
+        if (valid) {
+            hits++;
+            return turn;
+        }
+        misses++;
+        return -1;
+    }
+
+    /**
+     * This method stops the background thread for good.
+     */
+
+    public void shutdown() {
+        stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * This method returns the amount of positions answered in the background.
+     *
+     * @return the pondered count
+     */
+
+    public long getPondered() {
+        return pondered.get();
+    }
+
+    /**
+     * This method returns how often a looked up position had been pondered.
+     *
+     * @return the hit count
+     */
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * This method returns how often a looked up position had not been pondered.
+     *
+     * @return the miss count
+     */
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Plays every likely reply on the board, searches our answer and undoes the reply, until the
+     * replies run out or the thread is interrupted. An answer of an interrupted search is dropped.
+     */
+    private void ponder(Board board, int[] own, int[] opponent) {
+        int[] turns = board.legalTurns();
+        new MoveOrdering(0).order(board, turns, -1, -1);
+        MoveUndo firstUndo = new MoveUndo();
+        MoveUndo secondUndo = new MoveUndo();
+        int[] removed = new int[Board.TILES.length];
+        int[] opponentAfter = new int[Board.TILES.length];
+        for (int i = 0; i < turns.length && i < replies && !Thread.currentThread().isInterrupted(); i++) {
+            int turn = turns[i];
+            if (MoveSets.isPair(turn)) {
+                board.makeMove(MoveSets.first(turn), firstUndo);
+                board.makeMove(MoveSets.second(turn), secondUndo, removed);
+            } else {
+                board.makeMove(turn, secondUndo, removed);
+            }
+
+            //the balls removed by the reply are the opponent's
+            for (int color = 0; color < opponentAfter.length; color++) {
+                opponentAfter[color] = opponent[color] + removed[color];
+            }
+            strategy.setCollected(own, opponentAfter);
+
+            int answer = -1;
+            if (board.singleMovePossible()) {
+                answer = strategy.determineSingleMove(board);
+            } else if (board.doubleMovePossible()) {
+                int[] moves = strategy.determineDoubleMove(board);
+                answer = moves[0] == -1 ? -1 : MoveSets.pair(moves[0], moves[1]);
+            }
+            if (answer != -1 && !Thread.currentThread().isInterrupted()) {
+                answers.put(board.zobristHash(), answer);
+                pondered.incrementAndGet();
+            }
+
+            board.unmakeMove(secondUndo, removed);
+            if (MoveSets.isPair(turn)) {
+                board.unmakeMove(firstUndo, null);
+            }
+        }
+    }
+}
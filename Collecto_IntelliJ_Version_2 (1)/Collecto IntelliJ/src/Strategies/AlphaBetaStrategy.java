@@ -0,0 +1,411 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Alpha-beta search over single and double moves with iterative deepening, on one or more threads
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+import Board.MoveUndo;
+
+public class AlphaBetaStrategy implements Strategy {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 500;
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * 2^19 entries of 16 bytes, 8 MB.
+     */
+    public static final int DEFAULT_TABLE_BITS = 19;
+
+    /**
+     * The time is only looked at once every CHECK_INTERVAL nodes.
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    private final long budgetNanos;
+    private final int threads;
+    private final TranspositionTable table;
+    private int maxDepth = MAX_DEPTH;
+    private boolean moveOrdering = true;
+    private ProgressListener listener;
+
+    /**
+     * The balls collected by the player to move and by the opponent before the search, index color - 1.
+     * A position is scored by the difference of scoreCounter of both, so the balls already collected
+     * decide when the next 3 of a color give a point.
+     */
+    private final int[] ownCollected = new int[Board.TILES.length];
+    private final int[] opponentCollected = new int[Board.TILES.length];
+
+    /**
+     * Set when the first searcher is done, so the helpers stop as well.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Statistics of the last search.
+     */
+    private int completedDepth;
+    private long lastNodes;
+
+    public AlphaBetaStrategy() {
+        this(DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Searches on all available processors.
+     *
+     * @param budgetMillis the wall clock time a move may take
+     * @requires budgetMillis > 0
+     */
+    public AlphaBetaStrategy(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors(), DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Lazy SMP: every thread searches the same root with its own board, the helpers at other depths
+     * than the first thread, and all of them share one transposition table. The helpers fill the
+     * table with results the first thread can cut off with.
+     *
+     * @param budgetMillis the wall clock time a move may take
+     * @param threads      the amount of threads searching at the same time
+     * @param tableBits    the transposition table holds 2^tableBits entries
+     * @requires budgetMillis > 0 and threads > 0
+     */
+    public AlphaBetaStrategy(long budgetMillis, int threads, int tableBits) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads " + threads);
+        }
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.threads = threads;
+        this.table = new TranspositionTable(tableBits);
+    }
+
+    @Override
+    public String getName() {
+        return "Expert";
+    }
+
+    /**
+     * This method sets the balls both players have collected so far, to score positions exactly.
+     * Without it the search counts from zero collected balls.
+     *
+     * @param own      the balls of the player to move, index color - 1
+     * @param opponent the balls of the opponent, index color - 1
+     */
+
+    @Override
+    public void setCollected(int[] own, int[] opponent) {
+        System.arraycopy(own, 0, ownCollected, 0, ownCollected.length);
+        System.arraycopy(opponent, 0, opponentCollected, 0, opponentCollected.length);
+    }
+
+    @Override
+    public int determineSingleMove(Board board) {
+        if (!board.singleMovePossible()) {
+            return -1;
+        }
+        return search(board);
+    }
+
+    @Override
+    public int[] determineDoubleMove(Board board) {
+        if (board.singleMovePossible() || !board.doubleMovePossible()) {
+            return new int[] {-1, -1};
+        }
+        int pair = search(board);
+        return new int[] {MoveSets.first(pair), MoveSets.second(pair)};
+    }
+
+    /**
+     * This method limits the depth of the iterative deepening, so searches can be compared on the
+     * same depth instead of the same time.
+     *
+     * @param maxDepth the deepest search, in turns
+     * @requires maxDepth between 1 and MAX_DEPTH
+     */
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * This method sets the listener that is told the best turn after every completed depth of the
+     * first searcher, so a caller has an answer before the search is done.
+     *
+     * @param listener the listener, called on the thread calling determineSingleMove or
+     *                 determineDoubleMove, or null for none
+     */
+
+    @Override
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * This method turns the MoveOrdering of the positions below the root on or off. Without it the
+     * turns are searched in the order of Board.legalTurns.
+     *
+     * @param moveOrdering True to order the turns, the default
+     */
+
+    public void setMoveOrdering(boolean moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /**
+     * This method returns the amount of threads a search runs on.
+     *
+     * @return the thread count
+     */
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * This method returns the transposition table shared by the threads.
+     *
+     * @return the table
+     */
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * This method returns the depth of the last search that was completed before the deadline.
+     *
+     * @return the depth in turns, 0 if not even the first turn could be searched
+     */
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * This method returns the amount of positions visited by the last search, over all threads.
+     *
+     * @return the node count
+     */
+
+    public long getNodes() {
+        return lastNodes;
+    }
+
+    /**
+     * Runs the searchers until the time is up and returns the best move of the deepest search the
+     * first searcher completed, encoded as in MoveSets. The first searcher works on the given board,
+     * the helpers on copies. The board is left as it was. Interrupting the calling thread ends the
+     * search early, the interrupt stays set.
+     */
+    private int search(Board board) {
+        long deadline = System.nanoTime() + budgetNanos;
+        stopped = false;
+        table.newSearch();
+
+        Searcher[] searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(i == 0 ? board : board.deepCopy(), deadline, 1 + i % 2,
+                    i == 0 ? listener : null);
+        }
+        Thread[] helpers = new Thread[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Thread(searchers[i + 1], "alpha-beta-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        searchers[0].run();
+        stopped = true;
+        long nodes = searchers[0].nodes;
+        //every helper is waited for, even when interrupted, so none outlives the search and writes
+        //into the table and history of the next one
+        boolean interrupted = Thread.interrupted();
+        for (int i = 0; i < helpers.length; i++) {
+            while (helpers[i].isAlive()) {
+                try {
+                    helpers[i].join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            nodes += searchers[i + 1].nodes;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        completedDepth = searchers[0].completedDepth;
+        lastNodes = nodes;
+        return searchers[0].best;
+    }
+
+    /**
+     * One search thread: iterative deepening negamax on its own board and collected balls.
+     */
+    private class Searcher implements Runnable {
+        final Board board;
+        final long deadline;
+        final int firstDepth;
+        final ProgressListener listener;
+        final int[][] collected = {ownCollected.clone(), opponentCollected.clone()};
+
+        /**
+         * One undo record per move of a ply, two for a double move.
+         */
+        final MoveUndo[][] undos = new MoveUndo[MAX_DEPTH + 1][2];
+        final MoveOrdering ordering = new MoveOrdering(MAX_DEPTH);
+        long nodes;
+        boolean aborted;
+        int best;
+        int completedDepth;
+
+        Searcher(Board board, long deadline, int firstDepth, ProgressListener listener) {
+            this.board = board;
+            this.listener = listener;
+            this.deadline = deadline;
+            this.firstDepth = firstDepth;
+            for (MoveUndo[] ply : undos) {
+                ply[0] = new MoveUndo();
+                ply[1] = new MoveUndo();
+            }
+        }
+
+        @Override
+        public void run() {
+            int[] moves = board.legalTurns();
+            best = moves[0];
+            for (int depth = firstDepth; depth <= maxDepth && !aborted; depth++) {
+                //the best move so far is searched first, so a cut-off comes sooner
+                for (int i = 0; i < moves.length; i++) {
+                    if (moves[i] == best) {
+                        moves[i] = moves[0];
+                        moves[0] = best;
+                    }
+                }
+
+                int alpha = -Integer.MAX_VALUE;
+                int bestOfDepth = best;
+                for (int move : moves) {
+                    int value = -child(move, 0, depth - 1, -Integer.MAX_VALUE, -alpha);
+                    if (aborted) {
+                        break;
+                    }
+                    if (value > alpha) {
+                        alpha = value;
+                        bestOfDepth = move;
+                    }
+                }
+                if (!aborted) {
+                    best = bestOfDepth;
+                    completedDepth = depth;
+                    if (listener != null) {
+                        listener.completed(best, depth);
+                    }
+                }
+                if (moves.length == 1) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Negamax with alpha-beta cut-offs, scored for the player to move at this ply.
+         * ply is even for the player the search is for. The table stores the points gained below a
+         * position, not its score, since the score also counts the points made before it.
+         */
+        private int negamax(int ply, int depth, int alpha, int beta) {
+            if (++nodes % CHECK_INTERVAL == 0
+                    && (stopped || System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+                aborted = true;
+            }
+            if (aborted) {
+                return 0;
+            }
+            int now = evaluate(ply);
+            if (depth == 0 || ply >= MAX_DEPTH) {
+                //a leaf, the turns are not needed since the game ending scores no points
+                return now;
+            }
+            int[] moves = board.legalTurns();
+            if (moves.length == 0) {
+                return now;
+            }
+
+            long key = TranspositionTable.key(board, collected[ply % 2], collected[(ply + 1) % 2]);
+            long entry = table.probe(key);
+            if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+                int value = now + TranspositionTable.value(entry);
+                int flag = TranspositionTable.flag(entry);
+                if (flag == TranspositionTable.EXACT
+                        || (flag == TranspositionTable.LOWER && value >= beta)
+                        || (flag == TranspositionTable.UPPER && value <= alpha)) {
+                    return value;
+                }
+            }
+            if (moveOrdering) {
+                //the best move of an earlier search first, then killers, removed balls and history
+                ordering.order(board, moves, ply, entry != 0 ? TranspositionTable.move(entry) : -1);
+            }
+
+            int originalAlpha = alpha;
+            int best = -Integer.MAX_VALUE;
+            int bestMove = -1;
+            for (int move : moves) {
+                int value = -child(move, ply, depth - 1, -beta, -alpha);
+                if (aborted) {
+                    return 0;
+                }
+                if (value > best) {
+                    best = value;
+                    bestMove = move;
+                }
+                if (value > alpha) {
+                    alpha = value;
+                }
+                if (alpha >= beta) {
+                    ordering.cutoff(move, ply, depth);
+                    break;
+                }
+            }
+            int flag = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, best - now, depth, flag, bestMove);
+            return best;
+        }
+
+        /**
+         * Makes a move for the player to move at ply, searches the position after it and undoes the move.
+         */
+        private int child(int move, int ply, int depth, int alpha, int beta) {
+            int[] counts = collected[ply % 2];
+            MoveUndo[] undo = undos[ply];
+            int value;
+            if (MoveSets.isPair(move)) {
+                board.makeMove(MoveSets.first(move), undo[0]);
+                board.makeMove(MoveSets.second(move), undo[1], counts);
+                value = negamax(ply + 1, depth, alpha, beta);
+                board.unmakeMove(undo[1], counts);
+                board.unmakeMove(undo[0], null);
+            } else {
+                board.makeMove(move, undo[0], counts);
+                value = negamax(ply + 1, depth, alpha, beta);
+                board.unmakeMove(undo[0], counts);
+            }
+            return value;
+        }
+
+        /**
+         * The difference in points between the player to move and the opponent.
+         */
+        private int evaluate(int ply) {
+            int own = board.scoreCounter(collected[ply % 2]);
+            int opponent = board.scoreCounter(collected[(ply + 1) % 2]);
+            return own - opponent;
+        }
+    }
+}
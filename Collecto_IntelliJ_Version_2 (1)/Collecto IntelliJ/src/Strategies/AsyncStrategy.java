@@ -0,0 +1,25 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// A strategy that searches in the background and answers by a deadline
+
+package Strategies;
+
+import Board.Board;
+
+public interface AsyncStrategy {
+    public String getName();
+
+    /**
+     * This method starts searching the turn of the player to move and returns at once.
+     * The future completes with the answer of the search, or with the best turn so far when the
+     * deadline passes first, in which case the search is interrupted.
+     *
+     * @param board         the position, it is copied before the method returns
+     * @param deadlineNanos the System.nanoTime() by which the future completes
+     * @return the future of the turn, encoded as in MoveSets, -1 if the game is over
+     */
+    public SearchFuture search(Board board, long deadlineNanos);
+}
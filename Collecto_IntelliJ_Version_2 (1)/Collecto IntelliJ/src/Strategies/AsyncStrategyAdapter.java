@@ -0,0 +1,208 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Runs a synchronous strategy in the background so that it answers by a deadline
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AsyncStrategyAdapter implements AsyncStrategy {
+
+    /**
+     * One timer thread for the deadlines of all adapters.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "search-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Strategy strategy;
+
+    /**
+     * Runs one search at a time, a strategy keeps state between the moves of a search.
+     */
+    private final ExecutorService executor;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    /**
+     * The balls collected before the next search, index color - 1, and the listener told the progress
+     * of every search besides the future. They are handed to the strategy on the search thread when
+     * a search starts, so a search that is still unwinding keeps its own.
+     */
+    private int[] ownCollected = new int[Board.TILES.length];
+    private int[] opponentCollected = new int[Board.TILES.length];
+    private ProgressListener listener;
+
+    /**
+     * @param strategy the strategy to run, for example a NaiveStrategy or a SmartStrategy
+     */
+    public AsyncStrategyAdapter(Strategy strategy) {
+        this.strategy = strategy;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-" + strategy.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getName() {
+        return strategy.getName();
+    }
+
+    /**
+     * This method sets the balls both players have collected, for the searches started after it.
+     *
+     * @param own      the balls of the player to move, index color - 1, copied
+     * @param opponent the balls of the opponent, index color - 1, copied
+     */
+
+    public void setCollected(int[] own, int[] opponent) {
+        ownCollected = own.clone();
+        opponentCollected = opponent.clone();
+    }
+
+    /**
+     * This method sets a listener that is told the best turn of every iteration the strategy
+     * completes, for the searches started after it.
+     *
+     * @param listener the listener, called on the search thread, or null for none
+     */
+
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * This method starts the strategy on a copy of the board. Until the strategy answers, the best
+     * turn so far is the turn removing the most balls, replaced by the best turn of every iteration
+     * the strategy completes, see Strategy.setProgressListener. A search that is still unwinding
+     * from an earlier deadline delays this one, its deadline still counts from now.
+     *
+     * @param board         the position, it is copied before the method returns
+     * @param deadlineNanos the System.nanoTime() by which the future completes
+     * @return the future of the turn, encoded as in MoveSets, -1 if the game is over
+     */
+
+    @Override
+    public SearchFuture search(Board board, long deadlineNanos) {
+        Board copy = board.deepCopy();
+        int[] turns = copy.legalTurns();
+        if (turns.length > 1) {
+            new MoveOrdering(0).order(copy, turns, -1, -1);
+        }
+        SearchFuture future = new SearchFuture(turns.length == 0 ? -1 : turns[0]);
+        searches.incrementAndGet();
+        if (turns.length == 0) {
+            future.complete(-1);
+            return future;
+        }
+        int[] own = ownCollected;
+        int[] opponent = opponentCollected;
+        ProgressListener outer = listener;
+        Future<?> task = executor.submit(() -> {
+            strategy.setCollected(own, opponent);
+            strategy.setProgressListener((turn, depth) -> {
+                future.offer(turn);
+                if (outer != null) {
+                    outer.completed(turn, depth);
+                }
+            });
+            try {
+                int turn = run(copy);
+                if (!Thread.currentThread().isInterrupted() && turn != -1) {
+                    future.complete(turn);
+                }
+            } finally {
+                strategy.setProgressListener(null);
+            }
+        });
+        Future<?> timer = TIMER.schedule(() -> future.expire(expired), deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        future.attach(task, timer);
+        return future;
+    }
+
+    /**
+     * This method waits until the strategy is not searching any more, for instance before the
+     * strategy is used directly. An expired search stops soon, since it is interrupted.
+     */
+
+    public void awaitIdle() {
+        try {
+            //the executor runs one task at a time, so this only runs once the earlier searches are done
+            executor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * This method stops the search thread for good.
+     */
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * This method returns the strategy this adapter runs.
+     *
+     * @return the strategy
+     */
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * This method returns the amount of searches started.
+     *
+     * @return the search count
+     */
+
+    public long getSearches() {
+        return searches.get();
+    }
+
+    /**
+     * This method returns how many searches were answered with the best turn so far at the deadline.
+     *
+     * @return the expired count
+     */
+
+    public long getExpired() {
+        return expired.get();
+    }
+
+    /**
+     * Asks the strategy for a single move or, when there is none, for a double move.
+     */
+    private int run(Board board) {
+        if (board.singleMovePossible()) {
+            return strategy.determineSingleMove(board);
+        }
+        int[] moves = strategy.determineDoubleMove(board);
+        return moves[0] == -1 ? -1 : MoveSets.pair(moves[0], moves[1]);
+    }
+}
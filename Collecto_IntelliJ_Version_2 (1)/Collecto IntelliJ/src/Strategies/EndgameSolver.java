@@ -0,0 +1,421 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Solves positions with few balls left exactly and leaves the others to another strategy
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+import Board.MoveUndo;
+
+public class EndgameSolver implements Strategy {
+
+    /**
+     * Positions with at most this many balls are solved. Measured with EndgameBenchmark after warm-up,
+     * 20 positions per count: at 16 balls a median of 10 ms and a max of 76 ms, at 20 a median of
+     * 33 to 55 ms and a max of 0.55 s, at 24 a median of 0.33 s and a max of 1.26 s.
+     */
+    public static final int DEFAULT_THRESHOLD = 20;
+
+    /**
+     * 2^20 entries of 16 bytes, 16 MB. Solved positions stay in the table for the following moves.
+     */
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    /**
+     * Every turn removes at least 2 balls, so a game from 48 balls has at most 24 turns.
+     */
+    private static final int MAX_PLY = 24;
+
+    /**
+     * The depth stored with every entry: the values are exact to the end of the game.
+     */
+    private static final int SOLVED = 255;
+
+    /**
+     * The time and the interrupt are only looked at once every CHECK_INTERVAL nodes.
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    private final Strategy fallback;
+    private final int threshold;
+    private final TranspositionTable table;
+    private long budgetNanos;
+
+    /**
+     * The balls collected by the player to move and by the opponent before the search, index color - 1.
+     */
+    private final int[] ownCollected = new int[Board.TILES.length];
+    private final int[] opponentCollected = new int[Board.TILES.length];
+
+    /**
+     * The state of the running solve. One undo record per move of a ply, two for a double move.
+     */
+    private Board board;
+    private int[][] collected;
+    private final MoveUndo[][] undos = new MoveUndo[MAX_PLY + 1][2];
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+
+    /**
+     * Statistics of the last solve.
+     */
+    private long lastNodes;
+    private long lastNanos;
+    private int lastValue;
+    private long solves;
+    private long totalNanos;
+    private long aborts;
+
+    /**
+     * @param fallback the strategy that moves while there are more balls than DEFAULT_THRESHOLD
+     */
+    public EndgameSolver(Strategy fallback) {
+        this(fallback, DEFAULT_THRESHOLD, DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * @param fallback  the strategy that moves while there are more balls than threshold
+     * @param threshold positions with at most this many balls are solved
+     * @param tableBits the table of solved positions holds 2^tableBits entries
+     * @requires fallback != null
+     */
+    public EndgameSolver(Strategy fallback, int threshold, int tableBits) {
+        this.fallback = fallback;
+        this.threshold = threshold;
+        this.table = new TranspositionTable(tableBits);
+        for (MoveUndo[] ply : undos) {
+            ply[0] = new MoveUndo();
+            ply[1] = new MoveUndo();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return fallback.getName();
+    }
+
+    /**
+     * This method sets the balls both players have collected so far, to solve for the exact points.
+     * Without it the solver counts from zero collected balls.
+     *
+     * @param own      the balls of the player to move, index color - 1
+     * @param opponent the balls of the opponent, index color - 1
+     */
+
+    @Override
+    public void setCollected(int[] own, int[] opponent) {
+        System.arraycopy(own, 0, ownCollected, 0, ownCollected.length);
+        System.arraycopy(opponent, 0, opponentCollected, 0, opponentCollected.length);
+        fallback.setCollected(own, opponent);
+    }
+
+    /**
+     * This method passes the listener on to the fallback. A solve is exact only once it is done, so it
+     * tells nothing in between.
+     *
+     * @param listener the listener, or null for none
+     */
+
+    @Override
+    public void setProgressListener(ProgressListener listener) {
+        fallback.setProgressListener(listener);
+    }
+
+    /**
+     * This method checks whether the solver takes over on a board.
+     *
+     * @param board the position
+     * @return True if the board has at most threshold balls
+     */
+
+    public boolean isEndgame(Board board) {
+        return board.tileCount() <= threshold;
+    }
+
+    /**
+     * This method limits the time a solve may take. A solve is also stopped when its thread is interrupted.
+     *
+     * @param budgetMillis the time in milliseconds, 0 for no limit, the default
+     */
+
+    public void setBudget(long budgetMillis) {
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("The budget can not be negative");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    @Override
+    public int determineSingleMove(Board board) {
+        if (!isEndgame(board)) {
+            return fallback.determineSingleMove(board);
+        }
+        if (!board.singleMovePossible()) {
+            return -1;
+        }
+        int move = solve(board);
+        //stopped before any turn was solved
+        return move == -1 ? fallback.determineSingleMove(board) : move;
+    }
+
+    @Override
+    public int[] determineDoubleMove(Board board) {
+        if (!isEndgame(board)) {
+            return fallback.determineDoubleMove(board);
+        }
+        if (board.singleMovePossible() || !board.doubleMovePossible()) {
+            return new int[] {-1, -1};
+        }
+        int pair = solve(board);
+        if (pair == -1) {
+            //stopped before any turn was solved
+            return fallback.determineDoubleMove(board);
+        }
+        return new int[] {MoveSets.first(pair), MoveSets.second(pair)};
+    }
+
+    /**
+     * This method searches the game to its end and returns the best turn for the player to move,
+     * the one with the highest final difference in points. Other strategies can call it directly.
+     * When the budget runs out or the thread is interrupted, the best of the turns solved so far
+     * is returned and the table keeps only completed results.
+     *
+     * @param board the position, any amount of balls
+     * @return the best turn encoded as in MoveSets, -1 if the game is over or the solve was stopped
+     * before the first turn was solved
+     * @ensures the board is the same as before the call, and getValue() is the exact result if
+     * isAborted() is false
+     */
+
+    public int solve(Board board) {
+        long start = System.nanoTime();
+        this.board = board;
+        this.collected = new int[][] {ownCollected.clone(), opponentCollected.clone()};
+        this.nodes = 0;
+        this.deadline = budgetNanos == 0 ? Long.MAX_VALUE : start + budgetNanos;
+        this.aborted = false;
+
+        int best = -1;
+        int bestGain = -Integer.MAX_VALUE;
+        for (int move : board.legalTurns()) {
+            int gain = child(move, 0, bestGain, Integer.MAX_VALUE);
+            if (aborted) {
+                break;
+            }
+            if (gain > bestGain) {
+                bestGain = gain;
+                best = move;
+            }
+        }
+        if (best == -1) {
+            bestGain = 0;
+        }
+
+        lastNodes = nodes;
+        lastNanos = System.nanoTime() - start;
+        this.board = null;
+        if (aborted) {
+            aborts++;
+            return best;
+        }
+        lastValue = board.scoreCounter(ownCollected) - board.scoreCounter(opponentCollected) + bestGain;
+        solves++;
+        totalNanos += lastNanos;
+        return best;
+    }
+
+    /**
+     * This method checks whether the last solve was stopped by the budget or an interrupt.
+     *
+     * @return True if the last solve did not finish
+     */
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * This method returns the amount of solves that were stopped before they finished.
+     *
+     * @return the abort count
+     */
+
+    public long getAborts() {
+        return aborts;
+    }
+
+    /**
+     * This method returns the final points of the player to move minus those of the opponent, after
+     * the best play of both, as found by the last solve.
+     *
+     * @return the exact result of the last solved position
+     */
+
+    public int getValue() {
+        return lastValue;
+    }
+
+    /**
+     * This method returns the amount of positions visited by the last solve.
+     *
+     * @return the node count
+     */
+
+    public long getNodes() {
+        return lastNodes;
+    }
+
+    /**
+     * This method returns the time the last solve took.
+     *
+     * @return the solve time in microseconds
+     */
+
+    public long getSolveMicros() {
+        return lastNanos / 1000;
+    }
+
+    /**
+     * This method returns the mean time of all solves of this solver.
+     *
+     * @return the mean solve time in microseconds, 0 before the first solve
+     */
+
+    public long getMeanSolveMicros() {
+        return solves == 0 ? 0 : totalNanos / solves / 1000;
+    }
+
+    /**
+     * This method returns the amount of positions this solver solved.
+     *
+     * @return the solve count
+     */
+
+    public long getSolves() {
+        return solves;
+    }
+
+    /**
+     * This method returns the amount of balls at or below which the solver takes over.
+     *
+     * @return the threshold
+     */
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Negamax with alpha-beta cut-offs over the points the player to move gains from here to the end
+     * of the game minus those the opponent gains. That only depends on the tiles and the collected
+     * balls modulo 3, which is the key of the table.
+     */
+    private int negamax(int ply, int alpha, int beta) {
+        if (++nodes % CHECK_INTERVAL == 0
+                && (System.nanoTime() > deadline || Thread.currentThread().isInterrupted())) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        long key = TranspositionTable.key(board, collected[ply % 2], collected[(ply + 1) % 2]);
+        long entry = table.probe(key);
+        int hashMove = -1;
+        if (entry != 0) {
+            int value = TranspositionTable.value(entry);
+            int flag = TranspositionTable.flag(entry);
+            if (flag == TranspositionTable.EXACT) {
+                return value;
+            } else if (flag == TranspositionTable.LOWER && value > alpha) {
+                alpha = value;
+            } else if (flag == TranspositionTable.UPPER && value < beta) {
+                beta = value;
+            }
+            if (alpha >= beta) {
+                return value;
+            }
+            hashMove = TranspositionTable.move(entry);
+        }
+
+        int[] moves = board.legalTurns();
+        if (moves.length == 0) {
+            table.store(key, 0, SOLVED, TranspositionTable.EXACT, -1);
+            return 0;
+        }
+        //the best move of an earlier solve is searched first
+        for (int i = 1; i < moves.length; i++) {
+            if (moves[i] == hashMove) {
+                moves[i] = moves[0];
+                moves[0] = hashMove;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int best = -Integer.MAX_VALUE;
+        int bestMove = -1;
+        for (int move : moves) {
+            int value = child(move, ply, alpha, beta);
+            if (aborted) {
+                //the value is not exact, nothing is stored
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                bestMove = move;
+            }
+            if (value > alpha) {
+                alpha = value;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        int flag = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, best, SOLVED, flag, bestMove);
+        return best;
+    }
+
+    /**
+     * Makes a move for the player to move at ply and returns the points it gains now minus what the
+     * opponent gains from the position after it. The window is shifted by the points gained now.
+     */
+    private int child(int move, int ply, int alpha, int beta) {
+        int[] counts = collected[ply % 2];
+        MoveUndo[] undo = undos[ply];
+        int before = board.scoreCounter(counts);
+        int value;
+        if (MoveSets.isPair(move)) {
+            board.makeMove(MoveSets.first(move), undo[0]);
+            board.makeMove(MoveSets.second(move), undo[1], counts);
+            int gained = board.scoreCounter(counts) - before;
+            value = gained - negamax(ply + 1, shift(gained, beta), shift(gained, alpha));
+            board.unmakeMove(undo[1], counts);
+            board.unmakeMove(undo[0], null);
+        } else {
+            board.makeMove(move, undo[0], counts);
+            int gained = board.scoreCounter(counts) - before;
+            value = gained - negamax(ply + 1, shift(gained, beta), shift(gained, alpha));
+            board.unmakeMove(undo[0], counts);
+        }
+        return value;
+    }
+
+    /**
+     * The bound gained - bound for the child, keeping the open bounds open.
+     */
+    private static int shift(int gained, int bound) {
+        if (bound == Integer.MAX_VALUE) {
+            return -Integer.MAX_VALUE;
+        }
+        if (bound == -Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return gained - bound;
+    }
+}
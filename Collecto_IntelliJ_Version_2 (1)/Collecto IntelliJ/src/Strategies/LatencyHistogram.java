@@ -0,0 +1,123 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Counts how long answers took, in buckets that double in width
+
+package Strategies;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    /**
+     * Bucket i counts the latencies from 2^(i-1) up to 2^i milliseconds, bucket 0 those under a
+     * millisecond. The last bucket also counts everything longer.
+     */
+    public static final int BUCKETS = 18;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * This method counts one latency. It can be called from any thread.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+
+    public void record(long nanos) {
+        long millis = Math.max(0, nanos / 1_000_000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+        counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * This method returns the amount of latencies in a bucket.
+     *
+     * @param bucket the bucket
+     * @return the count
+     * @requires bucket between 0 and BUCKETS - 1
+     */
+
+    public long getCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * This method returns the amount of latencies counted.
+     *
+     * @return the total count
+     */
+
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * This method returns an upper bound of a percentile, the bound of the bucket it falls in.
+     *
+     * @param percentile the percentile, for example 0.99
+     * @return the latency in milliseconds, 0 if nothing was counted
+     * @requires percentile between 0 and 1
+     */
+
+    public long percentileMillis(double percentile) {
+        long total = getTotal();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return upperMillis(i);
+            }
+        }
+        return upperMillis(BUCKETS - 1);
+    }
+
+    /**
+     * This method forgets all latencies.
+     */
+
+    public void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * This method returns the upper bound of a bucket.
+     *
+     * @param bucket the bucket
+     * @return the bound in milliseconds
+     */
+
+    public static long upperMillis(int bucket) {
+        return 1L << bucket;
+    }
+
+    /**
+     * The non-empty buckets as "<bound ms: count", for example "<1 ms: 3, <512 ms: 12".
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append(i == BUCKETS - 1 ? ">=" + upperMillis(i - 1) : "<" + upperMillis(i))
+                        .append(" ms: ").append(count);
+            }
+        }
+        return builder.length() == 0 ? "empty" : builder.toString();
+    }
+}
@@ -0,0 +1,438 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Monte Carlo tree search over single and double moves, on one or more threads
+
+package Strategies;
+
+import Board.Board;
+import Board.BoardGenerator;
+import Board.MoveSets;
+import Board.MoveUndo;
+import Board.SplitMix64;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class MctsStrategy implements Strategy {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 500;
+
+    /**
+     * The exploration constant of UCT, sqrt(2) for results between 0 and 1.
+     */
+    public static final double EXPLORATION = Math.sqrt(2);
+
+    /**
+     * Every thread grows its own tree and the visits of the root turns are added up at the end.
+     */
+    public static final int ROOT_PARALLEL = 0;
+
+    /**
+     * All threads grow one shared tree. A thread counts a lost visit on every node of its path while
+     * it descends and adds the real result afterwards, so the other threads spread over other paths.
+     */
+    public static final int TREE_PARALLEL = 1;
+
+    private final long budgetNanos;
+    private final int mode;
+    private final PlayoutEngine[] engines;
+
+    /**
+     * The balls collected by the player to move (player 0) and by the opponent (player 1) before the search.
+     */
+    private final int[] ownCollected = new int[Board.TILES.length];
+    private final int[] opponentCollected = new int[Board.TILES.length];
+
+    /**
+     * Set when the first worker is done, so the others stop as well.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Statistics of the last search.
+     */
+    private long lastPlayouts;
+    private long lastNanos;
+    private int lastTreeSize;
+
+    public MctsStrategy() {
+        this(DEFAULT_BUDGET_MILLIS);
+    }
+
+    /**
+     * Searches a shared tree on all available processors.
+     *
+     * @param budgetMillis the wall clock time a move may take
+     * @requires budgetMillis > 0
+     */
+    public MctsStrategy(long budgetMillis) {
+        this(budgetMillis, Runtime.getRuntime().availableProcessors(), TREE_PARALLEL, BoardGenerator.nextSeed());
+    }
+
+    /**
+     * Searches on one thread.
+     *
+     * @param budgetMillis the wall clock time a move may take
+     * @param seed         the seed of the random playouts
+     */
+    public MctsStrategy(long budgetMillis, long seed) {
+        this(budgetMillis, 1, TREE_PARALLEL, seed);
+    }
+
+    /**
+     * @param budgetMillis the wall clock time a move may take
+     * @param threads      the amount of threads searching at the same time
+     * @param mode         ROOT_PARALLEL or TREE_PARALLEL
+     * @param seed         the seed of the random playouts, every thread gets its own seed from it
+     * @requires budgetMillis > 0 and threads > 0
+     */
+    public MctsStrategy(long budgetMillis, int threads, int mode, long seed) {
+        if (threads < 1 || (mode != ROOT_PARALLEL && mode != TREE_PARALLEL)) {
+            throw new IllegalArgumentException("threads " + threads + ", mode " + mode);
+        }
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.mode = mode;
+        this.engines = new PlayoutEngine[threads];
+        SplitMix64 seeds = new SplitMix64(seed);
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new PlayoutEngine(seeds.nextLong());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "MCTS";
+    }
+
+    /**
+     * This method sets the balls both players have collected so far, to score the playouts exactly.
+     * Without it the search counts from zero collected balls.
+     *
+     * @param own      the balls of the player to move, index color - 1
+     * @param opponent the balls of the opponent, index color - 1
+     */
+
+    @Override
+    public void setCollected(int[] own, int[] opponent) {
+        System.arraycopy(own, 0, ownCollected, 0, ownCollected.length);
+        System.arraycopy(opponent, 0, opponentCollected, 0, opponentCollected.length);
+    }
+
+    @Override
+    public int determineSingleMove(Board board) {
+        if (!board.singleMovePossible()) {
+            return -1;
+        }
+        return search(board);
+    }
+
+    @Override
+    public int[] determineDoubleMove(Board board) {
+        if (board.singleMovePossible() || !board.doubleMovePossible()) {
+            return new int[] {-1, -1};
+        }
+        int pair = search(board);
+        return new int[] {MoveSets.first(pair), MoveSets.second(pair)};
+    }
+
+    /**
+     * This method returns the amount of threads a search runs on.
+     *
+     * @return the thread count
+     */
+
+    public int getThreads() {
+        return engines.length;
+    }
+
+    /**
+     * This method returns how the threads share the work.
+     *
+     * @return ROOT_PARALLEL or TREE_PARALLEL
+     */
+
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * This method returns the amount of playouts of the last search, over all threads.
+     *
+     * @return the playout count
+     */
+
+    public long getPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * This method returns the playouts per second of the last search, over all threads.
+     *
+     * @return the playout rate, 0 before the first search
+     */
+
+    public double getPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts * 1e9 / lastNanos;
+    }
+
+    /**
+     * This method returns the amount of nodes built by the last search, over all trees.
+     *
+     * @return the tree size, including the roots
+     */
+
+    public int getTreeSize() {
+        return lastTreeSize;
+    }
+
+    /**
+     * Runs the workers until the time is up and returns the turn of the root with the most visits
+     * over all trees, encoded as in MoveSets. The first worker searches on the given board, the
+     * others on copies. The board is left as it was. Interrupting the calling thread ends the search
+     * early, the interrupt stays set.
+     */
+    private int search(Board board) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        stopped = false;
+        int[] turns = board.legalTurns();
+        new MoveOrdering(0).order(board, turns, -1, -1);
+        AtomicInteger treeSize = new AtomicInteger();
+
+        Worker[] workers = new Worker[engines.length];
+        Node[] roots = new Node[mode == ROOT_PARALLEL ? workers.length : 1];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = new Node(null, -1, 0, turns.clone());
+            treeSize.incrementAndGet();
+        }
+        for (int i = 0; i < workers.length; i++) {
+            Node root = roots[mode == ROOT_PARALLEL ? i : 0];
+            workers[i] = new Worker(i == 0 ? board : board.deepCopy(), root, engines[i], deadline, treeSize);
+        }
+
+        if (turns.length > 1) {
+            Thread[] threads = new Thread[workers.length - 1];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(workers[i + 1], "mcts-" + (i + 1));
+                threads[i].setDaemon(true);
+                threads[i].start();
+            }
+            workers[0].run();
+            stopped = true;
+            //every worker is waited for, even when interrupted, so none outlives the search and plays
+            //out on an engine of the next one
+            boolean interrupted = Thread.interrupted();
+            for (Thread thread : threads) {
+                while (thread.isAlive()) {
+                    try {
+                        thread.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //every root lists the turns in the order of turns, child i was made by turns[i]
+        long[] visits = new long[turns.length];
+        for (Node root : roots) {
+            for (int i = 0; i < turns.length; i++) {
+                Node child = root.children.get(i);
+                visits[i] += child == null ? 0 : child.visits();
+            }
+        }
+        long playouts = 0;
+        for (Worker worker : workers) {
+            playouts += worker.playouts;
+        }
+        int best = 0;
+        for (int i = 1; i < turns.length; i++) {
+            if (visits[i] > visits[best]) {
+                best = i;
+            }
+        }
+
+        lastPlayouts = playouts;
+        lastNanos = System.nanoTime() - start;
+        lastTreeSize = treeSize.get();
+        return turns[best];
+    }
+
+    /**
+     * One search thread: select, expand, playout and backpropagate on its own board until the deadline.
+     */
+    private class Worker implements Runnable {
+        final Board board;
+        final Node root;
+        final PlayoutEngine engine;
+        final long deadline;
+        final AtomicInteger treeSize;
+        final int[][] collected = {ownCollected.clone(), opponentCollected.clone()};
+
+        /**
+         * The undo records of the path from the root to the node being expanded.
+         */
+        final MoveUndo[] undos = new MoveUndo[PlayoutEngine.MAX_MOVES];
+        final MoveOrdering ordering = new MoveOrdering(0);
+        long playouts;
+
+        Worker(Board board, Node root, PlayoutEngine engine, long deadline, AtomicInteger treeSize) {
+            this.board = board;
+            this.root = root;
+            this.engine = engine;
+            this.deadline = deadline;
+            this.treeSize = treeSize;
+            for (int i = 0; i < undos.length; i++) {
+                undos[i] = new MoveUndo();
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Node node = root;
+                int made = 0;
+                node.addVisit();
+
+                //selection: follow the best UCT child while the node is fully expanded
+                Node next;
+                while (node.untriedCount.get() <= 0 && (next = node.select()) != null) {
+                    node = next;
+                    node.addVisit();
+                    made = make(node.turn, 1 - node.toMove, made);
+                }
+
+                //expansion: add the most promising untried turn, child i belongs to untried[i]
+                int left = node.untriedCount.getAndDecrement();
+                if (left > 0) {
+                    int index = node.untried.length - left;
+                    int turn = node.untried[index];
+                    made = make(turn, node.toMove, made);
+                    int[] untried = board.legalTurns();
+                    ordering.order(board, untried, -1, -1);
+                    Node child = new Node(node, turn, 1 - node.toMove, untried);
+                    child.addVisit();
+                    node.children.set(index, child);
+                    node = child;
+                    treeSize.incrementAndGet();
+                }
+
+                //playout, scored for player 0 in half points
+                int result = engine.play(board, collected, node.toMove);
+                int halfPoints = result > 0 ? 2 : result == 0 ? 1 : 0;
+                playouts++;
+
+                //backpropagation: the reward of a node is for the player that made its turn
+                for (Node n = node; n != null; n = n.parent) {
+                    n.addReward(n.toMove == 1 ? halfPoints : 2 - halfPoints);
+                }
+
+                //undo the path
+                while (node.parent != null) {
+                    made = unmake(node.turn, 1 - node.toMove, made);
+                    node = node.parent;
+                }
+            } while (System.nanoTime() < deadline && !stopped && !Thread.currentThread().isInterrupted());
+        }
+
+        /**
+         * Makes a turn for a player, returns the new amount of made moves.
+         */
+        private int make(int turn, int player, int made) {
+            int[] counts = collected[player];
+            if (MoveSets.isPair(turn)) {
+                board.makeMove(MoveSets.first(turn), undos[made++]);
+                board.makeMove(MoveSets.second(turn), undos[made++], counts);
+            } else {
+                board.makeMove(turn, undos[made++], counts);
+            }
+            return made;
+        }
+
+        /**
+         * Undoes a turn of a player, returns the new amount of made moves.
+         */
+        private int unmake(int turn, int player, int made) {
+            int[] counts = collected[player];
+            board.unmakeMove(undos[--made], counts);
+            if (MoveSets.isPair(turn)) {
+                board.unmakeMove(undos[--made], null);
+            }
+            return made;
+        }
+    }
+
+    /**
+     * A node of the search tree: the turn that led to it, the player to move in it and the
+     * statistics of the playouts through it. The statistics are one long, visits in the high half
+     * and half points in the low half, so both change in a single atomic add.
+     */
+    private static class Node {
+        private static final AtomicLongFieldUpdater<Node> STATS =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "stats");
+        private static final long VISIT = 1L << 32;
+        private static final long HALF_POINTS = VISIT - 1;
+
+        final Node parent;
+        final int turn;
+        final int toMove;
+        final int[] untried;
+        final AtomicInteger untriedCount;
+        final AtomicReferenceArray<Node> children;
+        volatile long stats;
+
+        Node(Node parent, int turn, int toMove, int[] untried) {
+            this.parent = parent;
+            this.turn = turn;
+            this.toMove = toMove;
+            this.untried = untried;
+            this.untriedCount = new AtomicInteger(untried.length);
+            this.children = new AtomicReferenceArray<>(untried.length);
+        }
+
+        long visits() {
+            return stats >>> 32;
+        }
+
+        /**
+         * Counts a visit without a reward, a loss until addReward is called.
+         */
+        void addVisit() {
+            STATS.getAndAdd(this, VISIT);
+        }
+
+        void addReward(int halfPoints) {
+            STATS.getAndAdd(this, halfPoints);
+        }
+
+        /**
+         * The child with the highest upper confidence bound, null if no child is published yet.
+         */
+        Node select() {
+            double logVisits = Math.log(visits());
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < children.length(); i++) {
+                Node child = children.get(i);
+                if (child == null) {
+                    continue;
+                }
+                long childStats = child.stats;
+                double visits = childStats >>> 32;
+                double value = (childStats & HALF_POINTS) / (2 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+}
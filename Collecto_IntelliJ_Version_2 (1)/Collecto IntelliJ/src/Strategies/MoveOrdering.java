@@ -0,0 +1,154 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Sorts the turns of a position so that a search looks at the likely best ones first
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+import Board.MoveUndo;
+
+import java.util.Arrays;
+
+public class MoveOrdering {
+
+    /**
+     * The score of a turn, from the highest bits down: the hash move, the two killers of the ply,
+     * the balls the turn removes, and the history of the turn as a tie-break.
+     */
+    private static final int HASH_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 28;
+    private static final int REMOVED_SHIFT = 20;
+    private static final int MAX_HISTORY = (1 << REMOVED_SHIFT) - 1;
+
+    /**
+     * Two killers per ply: turns that caused a cut-off in a sibling position, the newest first.
+     */
+    private final int[][] killers;
+
+    /**
+     * How often every turn, single move or pair encoded as in MoveSets, caused a cut-off,
+     * weighted by depth * depth.
+     */
+    private final int[] history = new int[MoveSets.PAIRS];
+
+    private final MoveUndo firstUndo = new MoveUndo();
+    private final MoveUndo secondUndo = new MoveUndo();
+    private int[] scores = new int[16];
+
+    /**
+     * @param maxPly the amount of plies killers are kept for
+     */
+    public MoveOrdering(int maxPly) {
+        this.killers = new int[maxPly + 1][2];
+        clear();
+    }
+
+    /**
+     * This method forgets all killers and history.
+     */
+
+    public void clear() {
+        for (int[] ply : killers) {
+            ply[0] = -1;
+            ply[1] = -1;
+        }
+        Arrays.fill(history, 0);
+    }
+
+    /**
+     * This method sorts turns from the most to the least promising: the hash move, then the killers
+     * of the ply, then by the balls removed and by history.
+     *
+     * @param board    the position of the turns, left as it was
+     * @param turns    the turns encoded as in MoveSets, sorted in place
+     * @param ply      the ply of the position, or -1 to ignore killers
+     * @param hashMove the best turn of an earlier search, or -1
+     */
+
+    public void order(Board board, int[] turns, int ply, int hashMove) {
+        if (scores.length < turns.length) {
+            scores = new int[turns.length];
+        }
+        int first = ply >= 0 && ply < killers.length ? killers[ply][0] : -1;
+        int second = ply >= 0 && ply < killers.length ? killers[ply][1] : -1;
+        for (int i = 0; i < turns.length; i++) {
+            int turn = turns[i];
+            int score;
+            if (turn == hashMove) {
+                score = HASH_SCORE;
+            } else if (turn == first) {
+                score = KILLER_SCORE + 1;
+            } else if (turn == second) {
+                score = KILLER_SCORE;
+            } else {
+                score = removed(board, turn) << REMOVED_SHIFT | history[turn];
+            }
+            scores[i] = score;
+        }
+
+        //insertion sort, there are rarely more than 30 turns
+        for (int i = 1; i < turns.length; i++) {
+            int turn = turns[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                turns[j + 1] = turns[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            turns[j + 1] = turn;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * This method records that a turn caused a cut-off, so it is tried earlier in sibling positions
+     * and in later searches.
+     *
+     * @param turn  the turn encoded as in MoveSets
+     * @param ply   the ply of the position
+     * @param depth the depth left at the position
+     */
+
+    public void cutoff(int turn, int ply, int depth) {
+        if (ply < killers.length && killers[ply][0] != turn) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = turn;
+        }
+        history[turn] += depth * depth;
+        if (history[turn] > MAX_HISTORY) {
+            //halve all, so the order between turns stays
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * This method counts the balls a turn would remove.
+     *
+     * @param board the position, left as it was
+     * @param turn  the turn encoded as in MoveSets
+     * @return the amount of adjacent balls after the turn
+     */
+
+    public int removed(Board board, int turn) {
+        int removed;
+        if (MoveSets.isPair(turn)) {
+            board.makeMove(MoveSets.first(turn), firstUndo);
+            board.makeMove(MoveSets.second(turn), secondUndo);
+            removed = Long.bitCount(board.adjacentBallsMask());
+            board.unmakeMove(secondUndo, null);
+            board.unmakeMove(firstUndo, null);
+        } else {
+            board.makeMove(turn, firstUndo);
+            removed = Long.bitCount(board.adjacentBallsMask());
+            board.unmakeMove(firstUndo, null);
+        }
+        return removed;
+    }
+}
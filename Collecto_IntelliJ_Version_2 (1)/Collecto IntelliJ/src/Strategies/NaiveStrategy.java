@@ -8,8 +8,9 @@
 package Strategies;
 
 import Board.Board;
+import Board.MoveSets;
 
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class NaiveStrategy implements Strategy {
 
@@ -20,11 +21,8 @@ public class NaiveStrategy implements Strategy {
 
     @Override
     public int determineSingleMove(Board board) {
-        if (!board.gameOver() && board.singleMovePossible()) {
-            int rand = (int) (Math.random() * board.singleMovesList().size());
-            return board.singleMovesList().get(rand);
-        }
-        return -1;
+        //a random valid single move, -1 if there is none
+        return MoveSets.random(board.singleMoveMask(), ThreadLocalRandom.current());
     }
 
     public int[] determineDoubleMove(Board board) {
@@ -39,14 +37,9 @@ public class NaiveStrategy implements Strategy {
 
         return new int[]{-1, -1};*/
 
-        if (board.doubleMovePossible()) {
-            List<Integer[]> moves = board.doubleMovesList();
-
-            int index = (int) (Math.random() * moves.size());
-
-            Integer[] options = moves.get(index);
-
-            return new int[] {options[0], options[1]};
+        int pair = MoveSets.random(board.doubleMoveSet(), ThreadLocalRandom.current());
+        if (pair != -1) {
+            return new int[] {MoveSets.first(pair), MoveSets.second(pair)};
         }
 
         return new int[] {-1, -1};
@@ -0,0 +1,154 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Plays random games to the end on a board and puts the board back afterwards
+
+package Strategies;
+
+import Board.BitBoard;
+import Board.Board;
+import Board.CommandTable;
+import Board.MoveUndo;
+import Board.SplitMix64;
+
+public class PlayoutEngine {
+
+    /**
+     * Every turn removes at least 2 of the 48 balls, so a game has at most 24 turns of at most 2 moves.
+     */
+    public static final int MAX_TURNS = 24;
+    public static final int MAX_MOVES = 2 * MAX_TURNS;
+
+    /**
+     * The undo records of the moves made in the running playout, and how many moves each turn took.
+     */
+    private final MoveUndo[] undos = new MoveUndo[MAX_MOVES];
+    private final int[] turnMoves = new int[MAX_TURNS];
+    private final SplitMix64 random;
+
+    /**
+     * Statistics over all playouts of this engine.
+     */
+    private long playouts;
+    private long turns;
+
+    public PlayoutEngine(long seed) {
+        this.random = new SplitMix64(seed);
+        for (int i = 0; i < MAX_MOVES; i++) {
+            undos[i] = new MoveUndo();
+        }
+    }
+
+    /**
+     * This method plays random valid turns until the game is over and then undoes them all.
+     * A single move is drawn uniformly: random possible commands are checked until one is valid.
+     * A double move takes a random first command that has a valid second command and then a
+     * uniformly drawn second command. No lists, copies or move masks of the whole board are made.
+     *
+     * @param board     the position to play from
+     * @param collected the balls collected by player 0 and player 1, index color - 1
+     * @param toMove    the player to move, 0 or 1
+     * @return the points of player 0 minus the points of player 1 at the end of the game
+     * @ensures the board and collected are the same as before the call
+     */
+
+    public int play(Board board, int[][] collected, int toMove) {
+        int made = 0;
+        int turn = 0;
+        int player = toMove;
+        BitBoard bits = board.getBits();
+        while (true) {
+            int command = pickValid(board.possibleMovementsMask(), bits);
+            if (command >= 0) {
+                board.makeMove(command, undos[made++], collected[player]);
+                turnMoves[turn] = 1;
+            } else {
+                //without adjacent balls only the seconds affected by the first can become valid
+                boolean prune = bits.adjacencyMask() == 0;
+                int firsts = board.possibleMovementsMask();
+                int second = -1;
+                while (firsts != 0 && second < 0) {
+                    int first = pick(firsts);
+                    firsts &= ~(1 << first);
+                    if (board.makeMove(first, undos[made])) {
+                        int seconds = board.possibleMovementsMask();
+                        second = pickValid(prune ? seconds & CommandTable.affectedMask(first) : seconds, bits);
+                    }
+                    if (second < 0) {
+                        board.unmakeMove(undos[made], null);
+                    }
+                }
+                if (second < 0) {
+                    break;
+                }
+                made++;
+                board.makeMove(second, undos[made++], collected[player]);
+                turnMoves[turn] = 2;
+            }
+            turn++;
+            player = 1 - player;
+        }
+        int result = board.scoreCounter(collected[0]) - board.scoreCounter(collected[1]);
+        turns += turn;
+
+        //undo in reverse, giving the removed balls back to the player that took them
+        while (turn > 0) {
+            turn--;
+            player = 1 - player;
+            board.unmakeMove(undos[--made], collected[player]);
+            if (turnMoves[turn] == 2) {
+                board.unmakeMove(undos[--made], null);
+            }
+        }
+        playouts++;
+        return result;
+    }
+
+    /**
+     * Draws commands of the mask without replacement until one leaves adjacent balls, so every
+     * valid command of the mask is equally likely. Returns -1 if none is valid.
+     */
+    private int pickValid(int candidates, BitBoard bits) {
+        while (candidates != 0) {
+            int command = pick(candidates);
+            if (bits.adjacentAfterMove(command)) {
+                return command;
+            }
+            candidates &= ~(1 << command);
+        }
+        return -1;
+    }
+
+    /**
+     * A uniformly drawn command of a non empty mask.
+     */
+    private int pick(int candidates) {
+        int k = random.nextInt(Integer.bitCount(candidates));
+        while (k-- > 0) {
+            candidates &= candidates - 1;
+        }
+        return Integer.numberOfTrailingZeros(candidates);
+    }
+
+    /**
+     * This method returns the amount of playouts played by this engine.
+     *
+     * @return the playout count
+     */
+
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * This method returns the amount of turns played over all playouts.
+     *
+     * @return the turn count
+     */
+
+    public long getTurns() {
+        return turns;
+    }
+}
@@ -0,0 +1,254 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Races several strategies on copies of the board and plays the answer of the most trusted one in time
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class PortfolioStrategy implements Strategy {
+
+    public static final long DEFAULT_BUDGET_MILLIS = 1000;
+
+    private final AsyncStrategyAdapter[] components;
+    private final long budgetNanos;
+
+    /**
+     * Statistics per component: the answers it gave in time, the turns it won, the answers it did
+     * not give before the deadline or before a more trusted component answered.
+     */
+    private final LatencyHistogram[] latencies;
+    private final long[] wins;
+    private final long[] misses;
+    private int lastWinner = -1;
+
+    /**
+     * @param budgetMillis the time a turn may take
+     * @param strategies   the components, the most trusted first, each runs on a thread of its own
+     * @requires budgetMillis > 0
+     */
+    public PortfolioStrategy(long budgetMillis, Strategy... strategies) {
+        if (strategies.length == 0) {
+            throw new IllegalArgumentException("A portfolio needs at least one strategy");
+        }
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.components = new AsyncStrategyAdapter[strategies.length];
+        this.latencies = new LatencyHistogram[strategies.length];
+        this.wins = new long[strategies.length];
+        this.misses = new long[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+            components[i] = new AsyncStrategyAdapter(strategies[i]);
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Portfolio";
+    }
+
+    /**
+     * This method sets the balls both players have collected so far for every component.
+     *
+     * @param own      the balls of the player to move, index color - 1
+     * @param opponent the balls of the opponent, index color - 1
+     */
+
+    @Override
+    public void setCollected(int[] own, int[] opponent) {
+        for (AsyncStrategyAdapter component : components) {
+            component.setCollected(own, opponent);
+        }
+    }
+
+    /**
+     * This method sets the listener every component tells the best turn of the iterations it completes.
+     *
+     * @param listener the listener, called on the threads of the components, or null for none
+     */
+
+    @Override
+    public void setProgressListener(ProgressListener listener) {
+        for (AsyncStrategyAdapter component : components) {
+            component.setProgressListener(listener);
+        }
+    }
+
+    @Override
+    public int determineSingleMove(Board board) {
+        return race(board);
+    }
+
+    @Override
+    public int[] determineDoubleMove(Board board) {
+        int turn = race(board);
+        return turn == -1 ? new int[] {-1, -1} : new int[] {MoveSets.first(turn), MoveSets.second(turn)};
+    }
+
+    /**
+     * This method returns the component that answered the last turn.
+     *
+     * @return the index of the component, -1 if no component answered in time
+     */
+
+    public int getLastWinner() {
+        return lastWinner;
+    }
+
+    /**
+     * This method returns how many turns a component won.
+     *
+     * @param component the index of the component
+     * @return the win count
+     */
+
+    public long getWins(int component) {
+        return wins[component];
+    }
+
+    /**
+     * This method returns how often a component was still searching when the turn was decided.
+     *
+     * @param component the index of the component
+     * @return the miss count
+     */
+
+    public long getMisses(int component) {
+        return misses[component];
+    }
+
+    /**
+     * This method returns how long a component took for the answers it gave in time.
+     *
+     * @param component the index of the component
+     * @return the latency histogram
+     */
+
+    public LatencyHistogram getLatencies(int component) {
+        return latencies[component];
+    }
+
+    public int getComponentCount() {
+        return components.length;
+    }
+
+    /**
+     * This method summarises every component: its wins, misses and latencies.
+     *
+     * @return one line per component
+     */
+
+    public String report() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < components.length; i++) {
+            builder.append(String.format("%d %-10s wins %5d  misses %5d  p50 <%d ms  p99 <%d ms  %s%n",
+                    i, components[i].getName(), wins[i], misses[i], latencies[i].percentileMillis(0.5),
+                    latencies[i].percentileMillis(0.99), latencies[i]));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * This method stops the threads of all components for good.
+     */
+
+    public void shutdown() {
+        for (AsyncStrategyAdapter component : components) {
+            component.shutdown();
+        }
+    }
+
+    /**
+     * Starts all components on copies of the board and waits until the most trusted component that is
+     * still running answers, or the deadline passes. The answer of the most trusted component that
+     * answered wins, the others are cancelled. When none answered in time, the best turn so far of the
+     * most trusted component is played.
+     */
+    private int race(Board board) {
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int count = components.length;
+        SearchFuture[] futures = new SearchFuture[count];
+        BlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+        for (int i = 0; i < count; i++) {
+            int component = i;
+            futures[i] = components[i].search(board, deadline);
+            futures[i].whenDone(() -> {
+                long nanos = System.nanoTime() - start;
+                if (!futures[component].isCancelled() && !futures[component].isExpired()) {
+                    latencies[component].record(nanos);
+                }
+                finished.add(component);
+            });
+        }
+
+        boolean[] answered = new boolean[count];
+        boolean[] done = new boolean[count];
+        int winner = -1;
+        try {
+            while (winner == -1) {
+                winner = winner(answered, done, true);
+                long remaining = deadline - System.nanoTime();
+                if (winner != -1 || remaining <= 0) {
+                    break;
+                }
+                Integer component = finished.poll(remaining, TimeUnit.NANOSECONDS);
+                if (component == null) {
+                    break;
+                }
+                done[component] = true;
+                answered[component] = !futures[component].isExpired() && !futures[component].isCancelled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (winner == -1) {
+            //answers that came in while the deadline passed still count
+            Integer component;
+            while ((component = finished.poll()) != null) {
+                done[component] = true;
+                answered[component] = !futures[component].isExpired() && !futures[component].isCancelled();
+            }
+            winner = winner(answered, done, false);
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (i != winner) {
+                if (!answered[i]) {
+                    misses[i]++;
+                }
+                futures[i].cancel(true);
+            }
+        }
+        lastWinner = winner;
+        if (winner == -1) {
+            return futures[0].bestSoFar();
+        }
+        wins[winner]++;
+        return futures[winner].bestSoFar();
+    }
+
+    /**
+     * Returns the most trusted component that answered, -1 if there is none. When inOrder is set, a
+     * component only counts if all more trusted components are done.
+     */
+    private int winner(boolean[] answered, boolean[] done, boolean inOrder) {
+        for (int i = 0; i < answered.length; i++) {
+            if (answered[i]) {
+                return i;
+            }
+            if (inOrder && !done[i]) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
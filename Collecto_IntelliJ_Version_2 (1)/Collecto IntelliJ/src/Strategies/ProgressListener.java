@@ -0,0 +1,18 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// Is told the best turn of a search every time the search completes an iteration
+
+package Strategies;
+
+public interface ProgressListener {
+    /**
+     * This method is called on the searching thread when an iteration of the search is complete.
+     *
+     * @param turn  the best turn so far, encoded as in MoveSets and valid on the searched board
+     * @param depth the turns the iteration looked ahead
+     */
+    public void completed(int turn, int depth);
+}
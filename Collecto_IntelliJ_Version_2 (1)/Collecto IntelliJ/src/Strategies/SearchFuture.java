@@ -0,0 +1,158 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// The result of an asynchronous search, with the best turn found so far
+
+package Strategies;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SearchFuture implements Future<Integer> {
+
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private volatile int best;
+    private volatile boolean expired;
+
+    /**
+     * The running search and the timer of the deadline, set once both are scheduled.
+     */
+    private volatile Future<?> task;
+    private volatile Future<?> timer;
+
+    /**
+     * @param fallback the turn the future holds before the search offers a better one, encoded as in MoveSets
+     */
+    public SearchFuture(int fallback) {
+        this.best = fallback;
+    }
+
+    /**
+     * This method returns the best turn the search has found so far. It can be called at any time.
+     *
+     * @return the turn encoded as in MoveSets, -1 if the game is over
+     */
+
+    public int bestSoFar() {
+        return best;
+    }
+
+    /**
+     * This method lets the search publish a better turn before it is done.
+     *
+     * @param turn a valid turn encoded as in MoveSets
+     */
+
+    public void offer(int turn) {
+        best = turn;
+    }
+
+    /**
+     * This method completes the future with the answer of the search, unless it expired or was cancelled.
+     *
+     * @param turn the answer encoded as in MoveSets
+     */
+
+    public synchronized void complete(int turn) {
+        if (!expired && !result.isDone()) {
+            best = turn;
+            result.complete(turn);
+        }
+        cancelTimer();
+    }
+
+    /**
+     * This method checks whether the future completed at the deadline instead of with the answer of the search.
+     *
+     * @return True if the deadline passed before the search was done
+     */
+
+    public boolean isExpired() {
+        return expired;
+    }
+
+    /**
+     * This method runs an action once the future is done, on the thread that completes it, or at once
+     * when it is done already.
+     *
+     * @param action the action, it must be quick
+     */
+
+    public void whenDone(Runnable action) {
+        result.whenComplete((turn, exception) -> action.run());
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = result.cancel(mayInterruptIfRunning);
+        Future<?> running = task;
+        if (running != null) {
+            running.cancel(mayInterruptIfRunning);
+        }
+        cancelTimer();
+        return cancelled;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return result.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    @Override
+    public Integer get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    @Override
+    public Integer get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return result.get(timeout, unit);
+    }
+
+    /**
+     * Hands over the search task and the deadline timer. If the future is already done, the timer
+     * is not needed any more.
+     */
+    void attach(Future<?> task, Future<?> timer) {
+        this.task = task;
+        this.timer = timer;
+        if (result.isDone()) {
+            cancelTimer();
+        }
+    }
+
+    /**
+     * Called by the timer at the deadline: completes with the best turn so far and interrupts the search.
+     * The counter is raised before the future completes, so a waiting caller sees it.
+     */
+    void expire(AtomicLong counter) {
+        synchronized (this) {
+            if (!result.isDone()) {
+                expired = true;
+                counter.incrementAndGet();
+            }
+        }
+        result.complete(best);
+        Future<?> running = task;
+        if (running != null) {
+            running.cancel(true);
+        }
+    }
+
+    private void cancelTimer() {
+        Future<?> scheduled = timer;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+}
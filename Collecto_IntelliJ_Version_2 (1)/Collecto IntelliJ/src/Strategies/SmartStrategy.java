@@ -8,6 +8,9 @@
 package Strategies;
 
 import Board.Board;
+import Board.DoubleMoveClasses;
+import Board.MoveSets;
+import Board.MoveUndo;
 
 import java.util.Arrays;
 
@@ -26,11 +29,14 @@ public class SmartStrategy implements Strategy {
         int counter = 0;
         int previousMax = 0;
         if (!board.gameOver() && board.singleMovePossible()) {
-            for (int i : board.singleMovesList()) {
-                Board copiedBoard = board.deepCopy();
-                copiedBoard.moveLine(i);
-                if (copiedBoard.adjacentBalls().size() > previousMax) {
-                    previousMax = copiedBoard.adjacentBalls().size();
+            MoveUndo undo = new MoveUndo();
+            for (int moves = board.singleMoveMask(); moves != 0; moves &= moves - 1) {
+                int i = Integer.numberOfTrailingZeros(moves);
+                board.makeMove(i, undo);
+                int adjacent = Long.bitCount(board.adjacentBallsMask());
+                board.unmakeMove(undo, null);
+                if (adjacent > previousMax) {
+                    previousMax = adjacent;
                     counter = i;
                 }
             }
@@ -44,15 +50,21 @@ public class SmartStrategy implements Strategy {
         int counter[] = new int[2];
         int previousMax = 0;
         if (!board.gameOver() && !board.singleMovePossible()) {
-            for (Integer[] i : board.doubleMovesList()) {
-                Board copiedBoard = board.deepCopy();
-                copiedBoard.moveLine(i[0]);
-                copiedBoard.moveLine(i[1]);
-                if (copiedBoard.adjacentBalls().size() >= previousMax) {
-                    previousMax = copiedBoard.adjacentBalls().size();
-                    counter[0] = i[0];
-                    counter[1] = i[1];
-
+            MoveUndo first = new MoveUndo();
+            MoveUndo second = new MoveUndo();
+            //double moves leading to the same board are only tried once
+            DoubleMoveClasses classes = board.doubleMoveClasses();
+            for (int c = 0; c < classes.size(); c++) {
+                int pair = classes.representative(c);
+                board.makeMove(MoveSets.first(pair), first);
+                board.makeMove(MoveSets.second(pair), second);
+                int adjacent = Long.bitCount(board.adjacentBallsMask());
+                board.unmakeMove(second, null);
+                board.unmakeMove(first, null);
+                if (adjacent >= previousMax) {
+                    previousMax = adjacent;
+                    counter[0] = MoveSets.first(pair);
+                    counter[1] = MoveSets.second(pair);
                 }
             }
             return counter;
@@ -13,5 +13,24 @@ public interface Strategy {
     public String getName();
     public int determineSingleMove(Board board);
     public int[] determineDoubleMove(Board board);
+
+    /**
+     * Sets the balls both players have collected so far, index color - 1, so a strategy that scores
+     * positions can count from them. Does nothing by default.
+     *
+     * @param own      the balls of the player to move
+     * @param opponent the balls of the opponent
+     */
+    public default void setCollected(int[] own, int[] opponent) {
+    }
+
+    /**
+     * Sets the listener a search tells its best turn so far after every iteration, or null for none.
+     * Does nothing by default, for strategies that do not search in iterations.
+     *
+     * @param listener the listener, called on the searching thread
+     */
+    public default void setProgressListener(ProgressListener listener) {
+    }
 }
 
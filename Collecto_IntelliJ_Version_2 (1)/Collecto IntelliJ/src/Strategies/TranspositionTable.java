@@ -0,0 +1,193 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+// A fixed size table of search results that many threads share without locks
+
+package Strategies;
+
+import Board.Board;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TranspositionTable {
+
+    /**
+     * The kind of bound a stored value is. 0 marks an empty entry.
+     */
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /**
+     * The layout of the data long of an entry, from the lowest bits up.
+     */
+    private static final int VALUE_BITS = 16;
+    private static final int DEPTH_BITS = 8;
+    private static final int FLAG_BITS = 2;
+    private static final int MOVE_BITS = 12;
+    private static final int DEPTH_SHIFT = VALUE_BITS;
+    private static final int FLAG_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int MOVE_SHIFT = FLAG_SHIFT + FLAG_BITS;
+    private static final int GENERATION_SHIFT = MOVE_SHIFT + MOVE_BITS;
+    private static final int VALUE_OFFSET = 1 << (VALUE_BITS - 1);
+
+    /**
+     * Mixes the collected balls modulo 3 into the position key, see key().
+     */
+    private static final long COUNTS_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Entry i takes the longs 2i and 2i + 1: the key XOR the data, and the data. A reader that sees
+     * the halves of two different writes gets a key that does not match and treats it as a miss.
+     */
+    private final AtomicLongArray entries;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * @param log2Entries the table holds 2^log2Entries entries of 16 bytes
+     * @requires log2Entries between 1 and 28
+     */
+    public TranspositionTable(int log2Entries) {
+        if (log2Entries < 1 || log2Entries > 28) {
+            throw new IllegalArgumentException("log2Entries " + log2Entries);
+        }
+        this.entries = new AtomicLongArray(2 << log2Entries);
+        this.mask = (1 << log2Entries) - 1;
+    }
+
+    /**
+     * This method returns the key of a position for the player to move: the Zobrist hash of the
+     * board mixed with the collected balls of both players modulo 3. Those remainders decide how many
+     * points later balls give, so positions with the same key gain the same points from here on.
+     *
+     * @param board    the position
+     * @param own      the balls of the player to move, index color - 1
+     * @param opponent the balls of the opponent, index color - 1
+     * @return the 64 bit key
+     */
+
+    public static long key(Board board, int[] own, int[] opponent) {
+        long counts = 0;
+        for (int c = 0; c < own.length; c++) {
+            counts = counts * 9 + own[c] % 3 * 3 + opponent[c] % 3;
+        }
+        return board.zobristHash() ^ ((counts + 1) * COUNTS_MULTIPLIER);
+    }
+
+    /**
+     * This method returns the amount of entries of the table.
+     *
+     * @return the capacity
+     */
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * This method starts a new search, the entries of older searches are replaced first.
+     */
+
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * This method empties the table. It must not run while other threads use the table.
+     */
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0);
+        }
+    }
+
+    /**
+     * This method looks up the data stored for a key.
+     *
+     * @param key the position key
+     * @return the data of the entry, 0 if the key is not in the table
+     * @ensures the result is 0 or flag(result) is EXACT, LOWER or UPPER
+     */
+
+    public long probe(long key) {
+        int index = 2 * ((int) key & mask);
+        long data = entries.get(index + 1);
+        long check = entries.get(index);
+        return (check ^ data) == key ? data : 0;
+    }
+
+    /**
+     * This method stores a search result. An entry of the running search is only replaced by a
+     * result that is at least as deep.
+     *
+     * @param key   the position key
+     * @param value the value, between -32768 and 32767
+     * @param depth the depth that was searched, between 0 and 255
+     * @param flag  EXACT, LOWER or UPPER
+     * @param move  the best turn, encoded as in MoveSets, or -1
+     */
+
+    public void store(long key, int value, int depth, int flag, int move) {
+        int index = 2 * ((int) key & mask);
+        long old = entries.get(index + 1);
+        int gen = generation;
+        if (flag(old) != 0 && (int) (old >>> GENERATION_SHIFT) == gen && depth(old) > depth) {
+            return;
+        }
+        long data = (long) (value + VALUE_OFFSET)
+                | (long) depth << DEPTH_SHIFT
+                | (long) flag << FLAG_SHIFT
+                | (long) (move + 1) << MOVE_SHIFT
+                | (long) gen << GENERATION_SHIFT;
+        entries.set(index, key ^ data);
+        entries.set(index + 1, data);
+    }
+
+    /**
+     * This method returns the value of the data of an entry.
+     *
+     * @param data the result of probe
+     * @return the stored value
+     */
+
+    public static int value(long data) {
+        return (int) (data & ((1 << VALUE_BITS) - 1)) - VALUE_OFFSET;
+    }
+
+    /**
+     * This method returns the depth of the data of an entry.
+     *
+     * @param data the result of probe
+     * @return the stored depth
+     */
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & ((1 << DEPTH_BITS) - 1);
+    }
+
+    /**
+     * This method returns the bound of the data of an entry.
+     *
+     * @param data the result of probe
+     * @return EXACT, LOWER, UPPER, or 0 for an empty entry
+     */
+
+    public static int flag(long data) {
+        return (int) (data >>> FLAG_SHIFT) & ((1 << FLAG_BITS) - 1);
+    }
+
+    /**
+     * This method returns the best turn of the data of an entry.
+     *
+     * @param data the result of probe
+     * @return the stored turn, -1 if there is none
+     */
+
+    public static int move(long data) {
+        return (int) (data >>> MOVE_SHIFT & ((1 << MOVE_BITS) - 1)) - 1;
+    }
+}
@@ -8,6 +8,7 @@
 package Board;
 
 import Board.Board;
+import Protocol.Messages;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -91,6 +92,205 @@ class BoardTest {
         assertTrue(copyBoard.doubleMovesList().size() >= 1);
     }
 
+    @Test
+    void testCachedMoveMasks() {
+        resetBoardForTest(board);
+        board.setTileRow(1, 2, 6);
+        board.setTileRow(1, 5, 6);
+        int singles = board.singleMoveMask();
+        assertEquals((1 << 1) | (1 << 8), singles);
+
+        // trying moves on the board keeps the cached position
+        long version = board.getBits().version();
+        MoveUndo undo = new MoveUndo();
+        board.makeMove(1, undo);
+        assertNotEquals(version, board.getBits().version());
+        board.unmakeMove(undo, null);
+        assertEquals(version, board.getBits().version());
+
+        // every change of the tiles drops the cached moves
+        board.setTileRow(1, 5, 0);
+        assertEquals(0, board.singleMoveMask());
+        assertFalse(board.singleMovePossible());
+        board.setTileRow(6, 0, 6);
+        assertEquals(0, board.singleMoveMask());
+        assertEquals(1 << 21, board.doubleMoveMask(1) & (1 << 21));
+        assertTrue(board.doubleMoveValid(1, 21));
+        for (Integer[] move : board.doubleMovesList()) {
+            assertTrue((board.doubleMoveMask(move[0]) & (1 << move[1])) != 0);
+        }
+    }
+
+    @Test
+    void testMoveSets() {
+        // the mask and the list hold the same single moves
+        int singles = board.singleMoveMask();
+        List<Integer> list = board.singleMovesList();
+        assertEquals(list.size(), MoveSets.size(singles));
+        for (int k = 0; k < list.size(); k++) {
+            assertEquals(list.get(k), MoveSets.get(singles, k));
+        }
+        // a few opening boards only have double moves
+        int random = MoveSets.random(singles, ThreadLocalRandom.current());
+        assertTrue(list.isEmpty() ? random == -1 : list.contains(random));
+        assertEquals(-1, MoveSets.random(0, ThreadLocalRandom.current()));
+        assertEquals(4, MoveSets.size(board.possibleMovementsMask()));
+
+        // pairs never overlap with single commands
+        int pair = MoveSets.pair(27, 3);
+        assertTrue(MoveSets.isPair(pair));
+        assertFalse(MoveSets.isPair(27));
+        assertEquals(27, MoveSets.first(pair));
+        assertEquals(3, MoveSets.second(pair));
+        assertEquals(MoveSets.PAIRS - 1, MoveSets.pair(27, 27));
+
+        resetBoardForTest(board);
+        board.setTile(0, 0, 6);
+        board.setTile(6, 6, 6);
+        int[] doubles = board.doubleMoveSet();
+        List<Integer[]> doubleList = board.doubleMovesList();
+        assertEquals(doubleList.size(), MoveSets.size(doubles));
+        List<Integer> encoded = new ArrayList<>();
+        MoveSets.forEach(doubles, encoded::add);
+        for (int k = 0; k < doubleList.size(); k++) {
+            assertEquals(MoveSets.pair(doubleList.get(k)[0], doubleList.get(k)[1]), encoded.get(k));
+            assertEquals(encoded.get(k), MoveSets.get(doubles, k));
+        }
+        int picked = MoveSets.random(doubles, ThreadLocalRandom.current());
+        assertTrue(board.doubleMoveValid(MoveSets.first(picked), MoveSets.second(picked)));
+
+        // the set is a copy
+        doubles[0] = -1;
+        assertNotEquals(-1, board.doubleMoveSet()[0]);
+    }
+
+    @Test
+    void testDoubleMoveClasses() {
+        resetBoardForTest(board);
+        board.setTile(4, 1, 1);
+        board.setTile(6, 6, 1);
+        DoubleMoveClasses classes = board.doubleMoveClasses();
+        assertEquals(board.doubleMovesList().size(), classes.moves());
+        // row 1 right and column 6 up give the same board in either order
+        assertEquals(classes.classOf(8, 20), classes.classOf(20, 8));
+        assertNotEquals(classes.classOf(8, 20), classes.classOf(8, 27));
+        assertEquals(classes.moves() - 1, classes.size());
+
+        int members = 0;
+        List<Board> results = new ArrayList<>();
+        for (int c = 0; c < classes.size(); c++) {
+            int[] pairs = classes.members(c);
+            assertEquals(classes.representative(c), pairs[0]);
+            members += pairs.length;
+            Board result = null;
+            for (int pair : pairs) {
+                assertEquals(c, classes.classOf(MoveSets.first(pair), MoveSets.second(pair)));
+                Board copy = board.deepCopy();
+                copy.moveLine(MoveSets.first(pair));
+                copy.moveLine(MoveSets.second(pair));
+                assertEquals(classes.hash(c), copy.zobristHash());
+                // every double move of a class gives the same board
+                if (result == null) {
+                    result = copy;
+                } else {
+                    assertEquals(result, copy);
+                }
+            }
+            // and the classes give different boards
+            assertFalse(results.contains(result));
+            results.add(result);
+        }
+        assertEquals(classes.moves(), members);
+        assertEquals(-1, classes.classOf(0, 0));
+        // computed once per position
+        assertSame(classes, board.doubleMoveClasses());
+    }
+
+    @Test
+    void testSymmetry() {
+        // mirroring swaps left and right, a quarter turn swaps rows and columns
+        assertEquals(7, Symmetry.command(4, 0));
+        assertEquals(21, Symmetry.command(4, 27));
+        assertEquals(20, Symmetry.command(1, 0));
+        assertEquals(6, Symmetry.cell(1, 0));
+        for (int symmetry = 0; symmetry < Symmetry.SYMMETRIES; symmetry++) {
+            int inverse = Symmetry.inverse(symmetry);
+            for (int command = 0; command < CommandTable.COMMANDS; command++) {
+                assertEquals(command, Symmetry.command(inverse, Symmetry.command(symmetry, command)));
+            }
+
+            // moving and then turning the board is turning and then moving the image of the command
+            Board transformed = board.transformed(symmetry);
+            assertEquals(board.singleMovesList().size(), transformed.singleMovesList().size());
+            for (int command = 0; command < CommandTable.COMMANDS; command++) {
+                int image = Symmetry.command(symmetry, command);
+                assertEquals(board.singleMoveValid(command), transformed.singleMoveValid(image));
+                Board moved = board.deepCopy();
+                moved.moveLine(command);
+                Board movedImage = transformed.deepCopy();
+                movedImage.moveLine(image);
+                assertEquals(moved.transformed(symmetry), movedImage);
+            }
+
+            // every rotation and reflection has the same canonical form
+            assertEquals(board.canonical(), transformed.canonical());
+            assertEquals(board.canonicalHash(), transformed.canonicalHash());
+            assertEquals(transformed.canonical().zobristHash(), transformed.canonicalHash());
+        }
+
+        int canonicalSymmetry = board.canonicalSymmetry();
+        Board canonical = board.canonical();
+        for (int command = 0; command < CommandTable.COMMANDS; command++) {
+            int image = board.toCanonicalCommand(command);
+            assertEquals(command, board.fromCanonicalCommand(image));
+            assertEquals(Symmetry.command(canonicalSymmetry, command), image);
+        }
+        assertEquals(Symmetry.IDENTITY, canonical.canonicalSymmetry());
+    }
+
+    @Test
+    void testShortCircuitGameOver() {
+        // only a double move on far apart lines is left
+        resetBoardForTest(board);
+        board.setTile(0, 0, 6);
+        board.setTile(6, 6, 6);
+        assertTrue(board.deepCopy().anyMovePossible());
+        assertFalse(board.gameOver());
+
+        // a lone ball can never touch anything
+        board.setTile(6, 6, 0);
+        assertTrue(board.deepCopy().gameOver());
+        assertTrue(board.doubleMovesList().isEmpty());
+
+        // the skipped second moves are far parallel lines and the first move itself
+        assertEquals(0, CommandTable.affectedMask(3) & (1 << 3 | 1 << 5 | 1 << 8 | 1 << 13));
+        assertNotEquals(0, CommandTable.affectedMask(3) & (1 << 10));
+        assertNotEquals(0, CommandTable.affectedMask(3) & (1 << 11));
+        assertNotEquals(0, CommandTable.affectedMask(3) & (1 << 14));
+
+        // played out games agree with the full move lists at every step
+        for (int game = 0; game < 5; game++) {
+            Board played = new Board();
+            played.initBoard();
+            while (true) {
+                boolean expected = played.deepCopy().singleMovesList().isEmpty()
+                        && played.deepCopy().doubleMovesList().isEmpty();
+                assertEquals(expected, played.deepCopy().gameOver());
+                if (expected) {
+                    break;
+                }
+                if (played.singleMovePossible()) {
+                    played.moveLine(played.singleMovesList().get(0));
+                } else {
+                    Integer[] move = played.doubleMovesList().get(0);
+                    played.moveLine(move[0]);
+                    played.moveLine(move[1]);
+                }
+                played.removeBalls();
+            }
+        }
+    }
+
     @Test
     void testSingleMoveValidity() {
         //TODO: do wrong move and assert false, predifined board
@@ -176,6 +376,36 @@ class BoardTest {
         assertEquals(0, board.commandIndex(14));
     }
 
+    @Test
+    void testCommandTable() {
+        for (int command = 0; command < CommandTable.COMMANDS; command++) {
+            assertEquals(board.commandIndex(command), CommandTable.line(command));
+            assertEquals(board.commandDirection(command), CommandTable.direction(command));
+            assertEquals(board.commandRowColumn(command), CommandTable.isRow(command));
+            assertEquals(board.DIM, Long.bitCount(CommandTable.lineMask(command)));
+        }
+        // the first cell of a line is the one the tiles slide towards
+        assertEquals(0, CommandTable.cell(0, 0));
+        assertEquals(6, CommandTable.cell(7, 0));
+        assertEquals(5, CommandTable.cell(7, 1));
+        assertEquals(3, CommandTable.cell(17, 0));
+        assertEquals(10, CommandTable.cell(17, 1));
+        assertEquals(42, CommandTable.cell(21, 0));
+        assertEquals(-1, board.commandIndex(28));
+    }
+
+    @Test
+    void testCompactionTable() {
+        // packed line with tiles 5 _ 2 _ _ 6 1 (cell 0 first)
+        int line = 5 | 2 << 6 | 6 << 15 | 1 << 18;
+        assertEquals(5 | 2 << 3 | 6 << 6 | 1 << 9, CompactionTable.compact(line));
+        assertEquals(0, CompactionTable.compact(0));
+        // a full line of color 6 does not move
+        assertEquals(0x1B6DB6, CompactionTable.compact(0x1B6DB6));
+        // a tile in the high part only
+        assertEquals(3, CompactionTable.compact(3 << 18));
+    }
+
     @Test
     public void testScoring() {
         int[] tiles = new int[6];
@@ -206,6 +436,213 @@ class BoardTest {
 
     }
 
+    @Test
+    void testAdjacentMaskAndFusedRemoval() {
+        resetBoardForTest(board);
+        board.setTile(0, 0, 3);
+        board.setTile(1, 0, 3);
+        board.setTile(1, 1, 3);
+        board.setTile(4, 4, 2);
+        board.setTile(4, 5, 2);
+        board.setTile(6, 6, 2);
+
+        long mask = board.adjacentBallsMask();
+        assertEquals(board.adjacentBalls().size(), Long.bitCount(mask));
+        for (Integer[] ball : board.adjacentBalls()) {
+            assertTrue((mask & (1L << (board.DIM * ball[1] + ball[0]))) != 0);
+        }
+
+        int[] scored = new int[6];
+        scored[2] = 1;
+        assertEquals(5, board.removeBalls(scored));
+        assertEquals(4, scored[2]);
+        assertEquals(2, scored[1]);
+        assertEquals(0, board.adjacentBallsMask());
+        assertEquals(2, board.getTileColor(6, 6));
+
+        // nothing left to remove
+        assertEquals(0, board.removeBalls(scored));
+        assertNull(board.removeBalls());
+    }
+
+    @Test
+    void testIncrementalAdjacency() {
+        MoveUndo undo = new MoveUndo();
+        int[] scored = new int[6];
+        for (int i = 0; i < 200; i++) {
+            int command = ThreadLocalRandom.current().nextInt(CommandTable.COMMANDS);
+            if (i % 3 == 0) {
+                board.makeMove(command, undo, scored);
+            } else {
+                board.moveLine(command);
+            }
+
+            // a board built tile by tile has to find the same adjacent balls
+            Board rebuilt = new Board();
+            int[][] tiles = board.getTiles();
+            for (int y = 0; y < board.DIM; y++) {
+                for (int x = 0; x < board.DIM; x++) {
+                    rebuilt.setTile(x, y, tiles[x][y]);
+                }
+            }
+            assertEquals(rebuilt.adjacentBallsMask(), board.adjacentBallsMask());
+
+            if (i % 3 == 0) {
+                board.unmakeMove(undo, scored);
+                board.moveLine(command);
+            }
+        }
+    }
+
+    @Test
+    void testMakeUnmakeMove() {
+        Board original = board.deepCopy();
+        int[] scored = new int[6];
+        MoveUndo first = new MoveUndo();
+        MoveUndo second = new MoveUndo();
+
+        int move = board.singleMovesList().get(0);
+        int removed = board.makeMove(move, first, scored);
+        assertTrue(removed >= 2);
+        assertEquals(removed, Long.bitCount(first.getRemovedMask()));
+        assertEquals(move, first.getCommand());
+        assertFalse(board.adjacentBallsPresent());
+
+        board.makeMove((move + 7) % 28, second);
+        board.unmakeMove(second, scored);
+        board.unmakeMove(first, scored);
+
+        assertArrayEquals(new int[6], scored);
+        assertArrayEquals(original.getTiles(), board.getTiles());
+        for (int color = 1; color <= 6; color++) {
+            assertEquals(original.getBits().colorMask(color), board.getBits().colorMask(color));
+        }
+        assertEquals(original.getBits().occupied(), board.getBits().occupied());
+    }
+
+    @Test
+    void testSeededGenerator() {
+        // the same seed gives the same board
+        Board replay = new Board();
+        replay.initBoard(board.getSeed());
+        assertEquals(board, replay);
+        assertArrayEquals(board.rowBoard, replay.rowBoard);
+
+        int[] tiles = new int[board.DIM * board.DIM];
+        SplitMix64 random = new SplitMix64(7);
+        for (int n = 0; n < 200; n++) {
+            assertTrue(BoardGenerator.fill(random, tiles) >= 1);
+            int[] counts = new int[7];
+            for (int i = 0; i < tiles.length; i++) {
+                counts[tiles[i]]++;
+                if (i % board.DIM != 0 && tiles[i] != 0) {
+                    assertNotEquals(tiles[i - 1], tiles[i]);
+                }
+                if (i >= board.DIM && tiles[i] != 0) {
+                    assertNotEquals(tiles[i - board.DIM], tiles[i]);
+                }
+            }
+            assertEquals(0, tiles[BoardGenerator.MIDDLE]);
+            assertEquals(1, counts[0]);
+            for (int color = 1; color <= 6; color++) {
+                assertEquals(BoardGenerator.MAX_PER_COLOR, counts[color]);
+            }
+        }
+
+        Board generated = new Board();
+        generated.initBoard(12345L);
+        assertEquals(12345L, generated.getSeed());
+        assertFalse(generated.adjacentBallsPresent());
+        assertFalse(generated.gameOver());
+    }
+
+    @Test
+    void testQualityGenerator() {
+        // measuring a board leaves it as it was
+        Board copy = board.deepCopy();
+        BoardQuality quality = BoardQuality.of(board);
+        assertEquals(copy, board);
+        assertEquals(board.singleMovesList().size(), quality.getSingleMoves());
+        assertTrue(quality.getBranchingFactor() >= 1);
+        assertTrue(quality.getScorePotential() >= 2);
+
+        QualityBands bands = new QualityBands(3, 4, 3, 4, 4, 6);
+        QualityBoardGenerator generator = new QualityBoardGenerator(bands);
+        List<Board> boards = generator.generate(5, 4096, 99L);
+        assertEquals(5, boards.size());
+        for (Board generated : boards) {
+            assertTrue(bands.accepts(BoardQuality.of(generated)));
+            Board replay = new Board();
+            replay.initBoard(generated.getSeed());
+            assertEquals(generated, replay);
+        }
+        assertEquals(boards, generator.generate(5, 4096, 99L));
+        assertTrue(generator.getScreened() > 0);
+        assertTrue(generator.getCandidatesPerSecond() > 0);
+
+        // a board always has at most 4 single moves at the start
+        generator = new QualityBoardGenerator(new QualityBands(5, 28, 0, 28, 0, 48));
+        assertTrue(generator.generate(1, 64).isEmpty());
+        assertEquals(64, generator.getScreened());
+        assertThrows(IllegalArgumentException.class, () -> new QualityBands(2, 1, 0, 0, 0, 0));
+    }
+
+    @Test
+    void testZobristHash() {
+        // a copy is the same position
+        Board copy = board.deepCopy();
+        assertEquals(board, copy);
+        assertEquals(board.zobristHash(), copy.zobristHash());
+        assertEquals(board.hashCode(), copy.hashCode());
+
+        // the board a client builds from the NEWGAME message is the same position
+        board = new Board();
+        board.initBoard();
+        String message = Messages.NEWGAME;
+        for (int tile : board.rowBoard) {
+            message += Messages.DELIMITER + tile;
+        }
+        String[] split = message.split(Messages.DELIMITER, 0);
+        Board client = new Board();
+        for (int y = 0; y < 7; y++) {
+            for (int x = 0; x < 7; x++) {
+                client.setTile(x, y, Integer.parseInt(split[7 * y + x + 1]));
+            }
+        }
+        assertEquals(board, client);
+        assertEquals(board.zobristHash(), client.zobristHash());
+
+        // moves, removals and undos keep the hash of a board built tile by tile
+        MoveUndo undo = new MoveUndo();
+        int[] scored = new int[6];
+        for (int i = 0; i < 100; i++) {
+            int command = ThreadLocalRandom.current().nextInt(CommandTable.COMMANDS);
+            long before = board.zobristHash();
+            board.makeMove(command, undo, scored);
+            Board rebuilt = new Board();
+            int[][] tiles = board.getTiles();
+            for (int y = 0; y < board.DIM; y++) {
+                for (int x = 0; x < board.DIM; x++) {
+                    rebuilt.setTile(x, y, tiles[x][y]);
+                }
+            }
+            assertEquals(rebuilt.zobristHash(), board.zobristHash());
+            assertEquals(rebuilt, board);
+            if (i % 2 == 0) {
+                board.unmakeMove(undo, scored);
+                assertEquals(before, board.zobristHash());
+            }
+        }
+
+        // a different tile is a different position
+        copy = board.deepCopy();
+        copy.setTile(3, 3, copy.getTileColor(3, 3) % 6 + 1);
+        assertNotEquals(board, copy);
+        assertNotEquals(board.zobristHash(), copy.zobristHash());
+        resetBoardForTest(copy);
+        assertEquals(0, copy.zobristHash());
+    }
+
     @Test
     void testSetTile() {
         board.setTileRow(3, 2, 0);
@@ -286,6 +723,33 @@ class BoardTest {
     }
 
 
+    @Test
+    public void testPackedBoard() {
+        BitBoard bits = board.getBits();
+        for (int y = 0; y < board.DIM; y++) {
+            for (int x = 0; x < board.DIM; x++) {
+                int color = board.getTileColor(x, y);
+                assertEquals(color, bits.get(board.DIM * y + x));
+                assertEquals(color != 0, (bits.occupied() & (1L << (board.DIM * y + x))) != 0);
+            }
+        }
+
+        // the tiles array is a snapshot, not the board itself
+        board.getTiles()[0][0] = 0;
+        assertNotEquals(0, board.getTileColor(0, 0));
+
+        resetBoardForTest(board);
+        board.setTile(1, 3, 4);
+        board.setTile(5, 3, 4);
+        board.moveLine(10);
+        assertEquals(4, board.getTileColor(6, 3));
+        assertEquals(4, board.getTileColor(5, 3));
+        assertEquals(0, board.getTileColor(1, 3));
+        assertEquals(BitBoard.ROW_MASKS[3] & BitBoard.COLUMN_MASKS[6] | 1L << (3 * board.DIM + 5),
+                bits.colorMask(4));
+    }
+
+
     void resetBoardForTest(Board board) {
         for (int y = 0; y < board.DIM; y++) {
             for (int x = 0; x < board.DIM; x++) {
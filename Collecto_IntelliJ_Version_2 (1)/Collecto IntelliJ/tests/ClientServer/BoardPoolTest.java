@@ -0,0 +1,83 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package ClientServer;
+
+import Board.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A test for the pool of boards the server starts its games with.
+ */
+
+class BoardPoolTest {
+
+    @Test
+    void takeWithoutProducerTest() {
+        BoardPool pool = new BoardPool(4);
+
+        // nothing generated ahead, the board is made on the spot
+        Board board = pool.take();
+        assertFalse(board.gameOver());
+        assertFalse(board.adjacentBallsPresent());
+        assertEquals(0, pool.getHitRate());
+        assertEquals(0, pool.getRefills());
+        assertTrue(pool.getMeanGenerationMicros() > 0);
+    }
+
+    @Test
+    void producerFillsPoolTest() throws InterruptedException {
+        BoardPool pool = new BoardPool(4);
+        pool.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(4, pool.size());
+
+        // the pool never grows past its capacity
+        Thread.sleep(20);
+        assertEquals(4, pool.getRefills());
+
+        Board board = pool.take();
+        assertFalse(board.gameOver());
+        assertEquals(1, pool.getHitRate());
+        pool.stop();
+        assertTrue(pool.toString().contains("hit rate"));
+    }
+
+    @Test
+    void restartRunsOneProducerTest() throws InterruptedException {
+        // servers of other tests may run pools of their own
+        long others = producers();
+        BoardPool pool = new BoardPool(64);
+        pool.start();
+        Thread.sleep(20);
+        pool.stop();
+        assertEquals(others, producers());
+
+        // a stopped pool neither refills nor counts the stopped time in the rate
+        long refills = pool.getRefills();
+        double rate = pool.getRefillRate();
+        Thread.sleep(50);
+        assertEquals(refills, pool.getRefills());
+        assertEquals(rate, pool.getRefillRate());
+
+        pool.start();
+        pool.start();
+        assertEquals(others + 1, producers());
+        pool.stop();
+        assertEquals(others, producers());
+    }
+
+    private long producers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("board-pool") && thread.isAlive()).count();
+    }
+}
@@ -0,0 +1,78 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Player;
+
+import Board.Board;
+import Strategies.AlphaBetaStrategy;
+import Strategies.EndgameSolver;
+import Strategies.PortfolioStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComputerPlayerTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        // moving row 0 joins two 1s, moving column 4 joins two 2s, nothing else is valid
+        board = new Board();
+        board.setTile(0, 0, 1);
+        board.setTile(2, 0, 1);
+        board.setTile(4, 3, 2);
+        board.setTile(4, 5, 2);
+    }
+
+    /**
+     * The color of the balls the move removes.
+     */
+    private int removedColor(int move) {
+        Board copy = board.deepCopy();
+        copy.moveLine(move);
+        int[] removed = copy.removeBalls();
+        return removed[0] > 0 ? 1 : 2;
+    }
+
+    @Test
+    void testCollectedBallsChangeMove() {
+        assertTrue(board.singleMovePossible());
+        PortfolioStrategy portfolio = new PortfolioStrategy(5000, new EndgameSolver(new AlphaBetaStrategy(200, 1, 16)));
+        ComputerPlayer[] players = {
+                new ComputerPlayer("alpha-beta", null, null, new AlphaBetaStrategy(200, 1, 16)),
+                new ComputerPlayer("endgame", null, null, new EndgameSolver(new AlphaBetaStrategy(200, 1, 16))),
+                new ComputerPlayer("portfolio", null, null, portfolio)};
+        for (ComputerPlayer player : players) {
+            // a third 1 gives a point
+            player.scored[0] = 1;
+            assertEquals(1, removedColor(player.determineSingleMove(board)));
+
+            // a third 2 gives a point
+            player.resetScore();
+            player.scored[1] = 1;
+            assertEquals(2, removedColor(player.determineSingleMove(board)));
+
+            // the opponent's balls count as well: leave the 2s, which would give the opponent a point
+            player.resetScore();
+            player.opponentScored[1] = 1;
+            assertEquals(2, removedColor(player.determineSingleMove(board)));
+        }
+        portfolio.shutdown();
+    }
+
+    @Test
+    void testOpponentMoveCountsForOpponent() {
+        ComputerPlayer player = new ComputerPlayer("naive", null, null);
+        int move = board.singleMovesList().get(0);
+        int color = removedColor(move);
+        player.makeOpponentSingleMove(board, move);
+        assertEquals(2, player.opponentScored[color - 1]);
+        assertEquals(0, player.scored[color - 1]);
+    }
+}
@@ -0,0 +1,101 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Player;
+
+import Board.Board;
+import Strategies.AlphaBetaStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static Strategies.StrategyAssertions.BOUND;
+import static Strategies.StrategyAssertions.valid;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintServiceTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.initBoard(5);
+    }
+
+    @Test
+    void testHintDeepens() throws InterruptedException {
+        HintService hints = new HintService(new AlphaBetaStrategy(2000, 1, 16));
+        assertEquals(-1, hints.hint(board));
+        assertEquals(-1, hints.getDepth(board));
+
+        Board copy = board.deepCopy();
+        hints.start(board);
+        for (int i = 0; i < 100 && hints.getDepth(board) < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(hints.getDepth(board) >= 2);
+        assertTrue(valid(board, hints.hint(board)));
+        hints.stop();
+        assertEquals(copy, board);
+
+        // a hint is remembered after the analysis stopped, until cleared
+        assertNotEquals(-1, hints.hint(board));
+        hints.clear();
+        assertEquals(-1, hints.hint(board));
+        hints.shutdown();
+    }
+
+    @Test
+    void testCollectedBallsChangeHint() throws InterruptedException {
+        // moving row 0 joins two 1s, moving column 4 joins two 2s, nothing else is valid
+        Board position = new Board();
+        position.setTile(0, 0, 1);
+        position.setTile(2, 0, 1);
+        position.setTile(4, 3, 2);
+        position.setTile(4, 5, 2);
+        HintService hints = new HintService(new AlphaBetaStrategy(200, 1, 16));
+
+        for (int color = 1; color <= 2; color++) {
+            // a third ball of the color gives a point
+            int[] own = new int[6];
+            own[color - 1] = 1;
+            hints.start(position, own, new int[6]);
+            for (int i = 0; i < 100 && hints.getDepth(position) < 1; i++) {
+                Thread.sleep(20);
+            }
+            assertTrue(hints.getDepth(position) >= 1);
+
+            Board after = position.deepCopy();
+            after.moveLine(hints.hint(position));
+            assertEquals(2, after.removeBalls()[color - 1]);
+        }
+        hints.shutdown();
+    }
+
+    @Test
+    void testNeverBlocks() throws InterruptedException {
+        HintService hints = new HintService(new AlphaBetaStrategy(60_000, 1, 16));
+        hints.start(board);
+        Thread.sleep(100);
+
+        // the previous analysis is still unwinding or searching, starting another one does not wait for it
+        Board other = new Board();
+        other.initBoard(6);
+        // waiting for it would take the minute of its budget
+        assertTimeout(BOUND, () -> {
+            hints.start(other);
+            hints.hint(other);
+        });
+
+        for (int i = 0; i < 100 && hints.hint(other) == -1; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(valid(other, hints.hint(other)));
+        assertNotEquals(-1, hints.hint(board));
+        hints.shutdown();
+    }
+}
@@ -0,0 +1,96 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Player;
+
+import Board.Board;
+import Board.MoveSets;
+import Strategies.AlphaBetaStrategy;
+import Strategies.MctsStrategy;
+import Strategies.StrategyAssertions;
+import Strategies.MoveOrdering;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static Strategies.StrategyAssertions.BOUND;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PondererTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.initBoard(5);
+    }
+
+    @Test
+    void testAnswersLikelyReply() throws InterruptedException {
+        Ponderer ponderer = new Ponderer(new AlphaBetaStrategy(50, 1, 16), 2);
+        Board copy = board.deepCopy();
+        ponderer.start(board);
+        for (int i = 0; i < 100 && ponderer.getPondered() < 2; i++) {
+            Thread.sleep(50);
+        }
+        ponderer.stop();
+        assertEquals(copy, board);
+        assertEquals(2, ponderer.getPondered());
+
+        // the reply removing the most balls was pondered
+        int[] turns = board.legalTurns();
+        new MoveOrdering(0).order(board, turns, -1, -1);
+        Board after = board.deepCopy();
+        if (MoveSets.isPair(turns[0])) {
+            after.moveLine(MoveSets.first(turns[0]));
+            after.moveLine(MoveSets.second(turns[0]));
+        } else {
+            after.moveLine(turns[0]);
+        }
+        after.removeBalls();
+        int answer = ponderer.lookup(after);
+        assertNotEquals(-1, answer);
+        assertEquals(1, ponderer.getHits());
+
+        // a position that was not pondered is a miss
+        assertEquals(-1, ponderer.lookup(board));
+        assertEquals(1, ponderer.getMisses());
+        ponderer.shutdown();
+    }
+
+    @Test
+    void testStopCancelsSearch() throws InterruptedException {
+        Ponderer ponderer = new Ponderer(new AlphaBetaStrategy(60_000, 1, 16), 4);
+        ponderer.start(board);
+        Thread.sleep(100);
+
+        // stop waits for the search, which has a minute left, so it only returns in time if it was cancelled
+        assertTimeout(BOUND, ponderer::stop);
+        assertEquals(0, ponderer.getPondered());
+        ponderer.shutdown();
+    }
+
+    @Test
+    void testStopReleasesMctsHelpers() throws InterruptedException {
+        MctsStrategy strategy = new MctsStrategy(1000, 4, MctsStrategy.TREE_PARALLEL, 7);
+        Ponderer ponderer = new Ponderer(strategy, 4);
+        Board copy = board.deepCopy();
+        for (int i = 0; i < 3; i++) {
+            ponderer.start(board);
+            Thread.sleep(100);
+            assertTimeout(BOUND, ponderer::stop);
+            assertEquals(0, Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("mcts-") && thread.isAlive()).count());
+
+            // the real search right after has the strategy to itself
+            assertTrue(StrategyAssertions.playValid(board, strategy));
+        }
+        assertEquals(copy, board);
+        assertEquals(0, ponderer.getPondered());
+        ponderer.shutdown();
+    }
+}
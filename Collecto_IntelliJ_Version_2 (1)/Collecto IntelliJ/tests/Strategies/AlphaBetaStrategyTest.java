@@ -0,0 +1,201 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Strategies;
+
+import Board.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static Strategies.StrategyAssertions.BOUND;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlphaBetaStrategyTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.initBoard();
+    }
+
+    @Test
+    void testValidMoveInTime() {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(200);
+        Board copy = board.deepCopy();
+
+        int move = assertTimeout(BOUND, () -> strategy.determineSingleMove(board));
+
+        // the search puts every move back
+        assertEquals(copy, board);
+        if (board.singleMovePossible()) {
+            assertTrue(board.singleMoveValid(move));
+            assertTrue(strategy.getCompletedDepth() >= 1);
+            assertTrue(strategy.getNodes() > 0);
+        } else {
+            assertEquals(-1, move);
+        }
+    }
+
+    @Test
+    void testTranspositionTable() {
+        TranspositionTable table = new TranspositionTable(4);
+        assertEquals(16, table.capacity());
+        assertEquals(0, table.probe(0x1234L));
+
+        table.store(0x1234L, -7, 5, TranspositionTable.LOWER, 812);
+        long entry = table.probe(0x1234L);
+        assertEquals(-7, TranspositionTable.value(entry));
+        assertEquals(5, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.flag(entry));
+        assertEquals(812, TranspositionTable.move(entry));
+
+        // same slot, other key: a miss, and a shallower result does not replace the entry
+        assertEquals(0, table.probe(0x1234L + 16));
+        table.store(0x1234L + 16, 3, 2, TranspositionTable.EXACT, -1);
+        assertEquals(5, TranspositionTable.depth(table.probe(0x1234L)));
+
+        // a new search may replace it
+        table.newSearch();
+        table.store(0x1234L + 16, 3, 2, TranspositionTable.EXACT, -1);
+        assertEquals(0, table.probe(0x1234L));
+        assertEquals(-1, TranspositionTable.move(table.probe(0x1234L + 16)));
+    }
+
+    @Test
+    void testMoveOrdering() {
+        for (int y = 0; y < Board.DIM; y++) {
+            for (int x = 0; x < Board.DIM; x++) {
+                board.setTile(x, y, 0);
+            }
+        }
+        // moving row 0 left or right joins three 1s, moving column 6 up or down joins two 2s
+        board.setTile(0, 0, 1);
+        board.setTile(3, 0, 1);
+        board.setTile(5, 0, 1);
+        board.setTile(6, 3, 2);
+        board.setTile(6, 6, 2);
+        Board copy = board.deepCopy();
+
+        MoveOrdering ordering = new MoveOrdering(4);
+        int[] turns = board.legalTurns();
+        ordering.order(board, turns, 0, -1);
+        assertEquals(copy, board);
+        assertEquals(3, ordering.removed(board, turns[0]));
+        assertEquals(3, ordering.removed(board, turns[1]));
+        assertEquals(2, ordering.removed(board, turns[turns.length - 1]));
+
+        // the hash move comes first, then the killers of the ply
+        int last = turns[turns.length - 1];
+        int beforeLast = turns[turns.length - 2];
+        ordering.cutoff(beforeLast, 0, 1);
+        ordering.order(board, turns, 0, last);
+        assertEquals(last, turns[0]);
+        assertEquals(beforeLast, turns[1]);
+
+        // killers belong to their ply
+        ordering.order(board, turns, 1, -1);
+        assertEquals(3, ordering.removed(board, turns[0]));
+    }
+
+    @Test
+    void testLazySmp() {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(200, 3, 16);
+        Board copy = board.deepCopy();
+        int move = strategy.determineSingleMove(board);
+
+        assertEquals(copy, board);
+        if (board.singleMovePossible()) {
+            assertTrue(board.singleMoveValid(move));
+            assertTrue(strategy.getCompletedDepth() >= 1);
+        }
+        assertEquals(3, strategy.getThreads());
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBetaStrategy(100, 0, 16));
+    }
+
+    @Test
+    void testProgressListener() {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(60_000, 2, 16);
+        strategy.setMaxDepth(4);
+        List<int[]> reports = new ArrayList<>();
+        strategy.setProgressListener((turn, depth) -> reports.add(new int[] {turn, depth}));
+        int move = strategy.determineSingleMove(board);
+        if (!board.singleMovePossible()) {
+            return;
+        }
+
+        // every completed depth of the first searcher is told, the last one is the answer
+        assertEquals(strategy.getCompletedDepth(), reports.size());
+        for (int i = 0; i < reports.size(); i++) {
+            assertEquals(i + 1, reports.get(i)[1]);
+            assertTrue(board.singleMoveValid(reports.get(i)[0]));
+        }
+        assertEquals(move, reports.get(reports.size() - 1)[0]);
+    }
+
+    @Test
+    void testInterruptJoinsHelpers() {
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(60_000, 3, 16);
+        Thread.currentThread().interrupt();
+        int move = strategy.determineSingleMove(board);
+
+        // the search ends at once, the interrupt stays set and no helper is left running
+        assertTrue(Thread.interrupted());
+        if (board.singleMovePossible()) {
+            assertTrue(board.singleMoveValid(move));
+        }
+        assertEquals(0, Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("alpha-beta-") && thread.isAlive()).count());
+    }
+
+    @Test
+    void testDoubleMove() {
+        for (int y = 0; y < Board.DIM; y++) {
+            for (int x = 0; x < Board.DIM; x++) {
+                board.setTile(x, y, 0);
+            }
+        }
+        board.setTile(0, 0, 6);
+        board.setTile(6, 6, 6);
+
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(100);
+        assertEquals(-1, strategy.determineSingleMove(board));
+        int[] moves = strategy.determineDoubleMove(board);
+        assertTrue(board.doubleMoveValid(moves[0], moves[1]));
+    }
+
+    @Test
+    void testPrefersThePoint() {
+        for (int y = 0; y < Board.DIM; y++) {
+            for (int x = 0; x < Board.DIM; x++) {
+                board.setTile(x, y, 0);
+            }
+        }
+        // moving row 0 joins two 1s, moving column 6 joins two 2s
+        board.setTile(0, 0, 1);
+        board.setTile(3, 0, 1);
+        board.setTile(6, 4, 2);
+        board.setTile(6, 6, 2);
+        board.setTile(6, 1, 3);
+
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(200);
+        strategy.setCollected(new int[] {2, 0, 0, 0, 0, 0}, new int[6]);
+        int move = strategy.determineSingleMove(board);
+        assertTrue(move == 0 || move == 7, "chose " + move);
+
+        // with two 1s already collected, the pair of 1s completes a point
+        Board after = board.deepCopy();
+        after.moveLine(move);
+        int[] scored = new int[] {2, 0, 0, 0, 0, 0};
+        after.removeBalls(scored);
+        assertTrue(after.scoreCounter(scored) >= 1);
+    }
+}
@@ -0,0 +1,139 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Strategies;
+
+import Board.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static Strategies.StrategyAssertions.BOUND;
+import static Strategies.StrategyAssertions.valid;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncStrategyTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.initBoard(5);
+    }
+
+    @Test
+    void testAdaptersAnswer() throws InterruptedException, ExecutionException {
+        Strategy[] strategies = {new NaiveStrategy(), new SmartStrategy()};
+        for (Strategy strategy : strategies) {
+            AsyncStrategyAdapter async = new AsyncStrategyAdapter(strategy);
+            Board copy = board.deepCopy();
+            SearchFuture future = async.search(board, System.nanoTime() + 10_000_000_000L);
+            int turn = future.get();
+
+            assertTrue(valid(board, turn), strategy.getName());
+            assertTrue(future.isDone());
+            assertFalse(future.isExpired());
+            assertEquals(turn, future.bestSoFar());
+            assertEquals(copy, board);
+            assertEquals(0, async.getExpired());
+            async.shutdown();
+        }
+    }
+
+    @Test
+    void testDeadline() throws InterruptedException, ExecutionException {
+        AsyncStrategyAdapter async = new AsyncStrategyAdapter(new AlphaBetaStrategy(60_000, 1, 16));
+        SearchFuture future = async.search(board, System.nanoTime() + 100_000_000L);
+        assertTrue(valid(board, future.bestSoFar()));
+
+        int turn = assertTimeout(BOUND, () -> future.get());
+        assertTrue(future.isDone());
+        assertTrue(future.isExpired());
+        assertTrue(valid(board, turn));
+        assertEquals(1, async.getExpired());
+
+        // the interrupted search gives the thread back
+        assertTimeout(BOUND, async::awaitIdle);
+        async.shutdown();
+    }
+
+    /**
+     * Tells one turn to its listener, if it has one, and then waits until it is interrupted.
+     */
+    private static class SlowStrategy implements Strategy {
+        private final int reported;
+        private ProgressListener listener;
+
+        SlowStrategy(int reported) {
+            this.reported = reported;
+        }
+
+        @Override
+        public String getName() {
+            return "Slow";
+        }
+
+        @Override
+        public void setProgressListener(ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public int determineSingleMove(Board board) {
+            if (reported != -1 && listener != null) {
+                listener.completed(reported, 1);
+            }
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return -1;
+        }
+
+        @Override
+        public int[] determineDoubleMove(Board board) {
+            determineSingleMove(board);
+            return new int[] {-1, -1};
+        }
+    }
+
+    @Test
+    void testBestSoFar() throws InterruptedException, ExecutionException {
+        int[] turns = board.legalTurns();
+        new MoveOrdering(0).order(board, turns, -1, -1);
+
+        // before the strategy reports, the turn removing the most balls
+        AsyncStrategyAdapter async = new AsyncStrategyAdapter(new SlowStrategy(-1));
+        SearchFuture future = async.search(board, System.nanoTime() + 50_000_000L);
+        assertEquals(turns[0], future.bestSoFar());
+        assertEquals(turns[0], future.get());
+        async.shutdown();
+
+        // a completed iteration replaces it
+        int reported = turns[turns.length - 1];
+        async = new AsyncStrategyAdapter(new SlowStrategy(reported));
+        future = async.search(board, System.nanoTime() + 1_000_000_000L);
+        assertEquals(reported, future.get());
+        assertTrue(future.isExpired());
+        async.shutdown();
+    }
+
+    @Test
+    void testCancel() {
+        AsyncStrategyAdapter async = new AsyncStrategyAdapter(new AlphaBetaStrategy(60_000, 1, 16));
+        SearchFuture future = async.search(board, System.nanoTime() + 60_000_000_000L);
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        assertFalse(future.isExpired());
+        assertTimeout(BOUND, async::awaitIdle);
+        assertEquals(0, async.getExpired());
+        async.shutdown();
+    }
+}
@@ -0,0 +1,148 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    /**
+     * Plays random turns until at most the given amount of balls is left.
+     */
+    private static Board endgame(long seed, int tiles) {
+        Random random = new Random(seed);
+        Board board = new Board();
+        board.initBoard(seed);
+        int[] turns = board.legalTurns();
+        while (board.tileCount() > tiles && turns.length > 0) {
+            play(board, turns[random.nextInt(turns.length)]);
+            board.removeBalls();
+            turns = board.legalTurns();
+        }
+        return board;
+    }
+
+    private static void play(Board board, int turn) {
+        if (MoveSets.isPair(turn)) {
+            board.moveLine(MoveSets.first(turn));
+            board.moveLine(MoveSets.second(turn));
+        } else {
+            board.moveLine(turn);
+        }
+    }
+
+    /**
+     * Plain minimax on copies, without a table: the final points of the player to move minus the opponent's.
+     */
+    private static int minimax(Board board, int[] own, int[] opponent) {
+        int[] turns = board.legalTurns();
+        if (turns.length == 0) {
+            return board.scoreCounter(own) - board.scoreCounter(opponent);
+        }
+        int best = -Integer.MAX_VALUE;
+        for (int turn : turns) {
+            Board copy = board.deepCopy();
+            int[] counts = own.clone();
+            play(copy, turn);
+            copy.removeBalls(counts);
+            best = Math.max(best, -minimax(copy, opponent, counts));
+        }
+        return best;
+    }
+
+    @Test
+    void testExactValue() {
+        int[] own = {2, 0, 1, 0, 0, 0};
+        int[] opponent = {0, 2, 0, 0, 1, 0};
+        EndgameSolver solver = new EndgameSolver(new NaiveStrategy(), 48, 16);
+        solver.setCollected(own, opponent);
+        for (long seed = 1; seed <= 6; seed++) {
+            Board board = endgame(seed, 10);
+            Board copy = board.deepCopy();
+            int best = solver.solve(board);
+
+            assertEquals(copy, board);
+            assertEquals(minimax(board, own, opponent), solver.getValue());
+            assertTrue(solver.getNodes() > 0 || best == -1);
+            if (best != -1) {
+                // the chosen turn reaches the solved value
+                Board after = board.deepCopy();
+                int[] counts = own.clone();
+                play(after, best);
+                after.removeBalls(counts);
+                assertEquals(solver.getValue(), -minimax(after, opponent, counts));
+            }
+        }
+        assertEquals(6, solver.getSolves());
+    }
+
+    @Test
+    void testThreshold() {
+        Board board = new Board();
+        board.initBoard(3);
+        EndgameSolver solver = new EndgameSolver(new NaiveStrategy(), 10, 16);
+        assertFalse(solver.isEndgame(board));
+        int move = solver.determineSingleMove(board);
+        assertTrue(board.singleMoveValid(move));
+        assertEquals(0, solver.getSolves());
+
+        Board end = endgame(3, 10);
+        assertTrue(solver.isEndgame(end));
+        if (end.singleMovePossible()) {
+            assertTrue(end.singleMoveValid(solver.determineSingleMove(end)));
+            assertEquals(1, solver.getSolves());
+        } else if (end.doubleMovePossible()) {
+            int[] moves = solver.determineDoubleMove(end);
+            assertTrue(end.doubleMoveValid(moves[0], moves[1]));
+            assertEquals(1, solver.getSolves());
+        }
+    }
+
+    @Test
+    void testBudgetStopsSolve() {
+        // the whole game is far too big to solve in 100 ms
+        Board board = new Board();
+        board.initBoard(3);
+        EndgameSolver solver = new EndgameSolver(new NaiveStrategy(), Board.DIM * Board.DIM, 16);
+        solver.setBudget(100);
+        Board copy = board.deepCopy();
+        int move = solver.determineSingleMove(board);
+
+        assertEquals(copy, board);
+        assertTrue(board.singleMoveValid(move));
+        assertTrue(solver.isAborted());
+        assertEquals(1, solver.getAborts());
+        assertEquals(0, solver.getSolves());
+        assertThrows(IllegalArgumentException.class, () -> solver.setBudget(-1));
+    }
+
+    @Test
+    void testPortfolioCancelsSolve() throws InterruptedException {
+        Board board = new Board();
+        board.initBoard(3);
+        EndgameSolver solver = new EndgameSolver(new NaiveStrategy(), Board.DIM * Board.DIM, 16);
+        PortfolioStrategy portfolio = new PortfolioStrategy(200, solver, new SmartStrategy());
+
+        assertTrue(board.singleMoveValid(portfolio.determineSingleMove(board)));
+        assertEquals(1, portfolio.getLastWinner());
+
+        // the interrupted solve gives its thread back
+        for (int i = 0; i < 500 && solver.getAborts() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, solver.getAborts());
+        assertEquals(0, solver.getSolves());
+        portfolio.shutdown();
+    }
+}
@@ -0,0 +1,118 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Strategies;
+
+import Board.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static Strategies.StrategyAssertions.BOUND;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsStrategyTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.initBoard();
+    }
+
+    @Test
+    void testPlayoutRestoresBoard() {
+        PlayoutEngine engine = new PlayoutEngine(1);
+        int[][] collected = {{1, 2, 0, 0, 0, 0}, new int[6]};
+        Board copy = board.deepCopy();
+        for (int i = 0; i < 50; i++) {
+            int result = engine.play(board, collected, i % 2);
+            assertTrue(Math.abs(result) <= 16);
+        }
+        assertEquals(copy, board);
+        assertArrayEquals(new int[] {1, 2, 0, 0, 0, 0}, collected[0]);
+        assertArrayEquals(new int[6], collected[1]);
+        assertEquals(50, engine.getPlayouts());
+        assertTrue(engine.getTurns() >= 50);
+    }
+
+    @Test
+    void testValidMoveInTime() {
+        MctsStrategy strategy = new MctsStrategy(200, 7);
+        Board copy = board.deepCopy();
+
+        int move = assertTimeout(BOUND, () -> strategy.determineSingleMove(board));
+
+        assertEquals(copy, board);
+        if (board.singleMovePossible()) {
+            assertTrue(board.singleMoveValid(move));
+        } else {
+            assertEquals(-1, move);
+        }
+        if (board.singleMovesList().size() > 1) {
+            assertTrue(strategy.getPlayouts() > 0);
+            assertTrue(strategy.getTreeSize() > 1);
+            assertTrue(strategy.getPlayoutsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void testParallelModes() {
+        Board copy = board.deepCopy();
+        for (int mode : new int[] {MctsStrategy.ROOT_PARALLEL, MctsStrategy.TREE_PARALLEL}) {
+            MctsStrategy strategy = new MctsStrategy(200, 3, mode, 7);
+            int move = strategy.determineSingleMove(board);
+
+            assertEquals(copy, board);
+            if (board.singleMovePossible()) {
+                assertTrue(board.singleMoveValid(move));
+            }
+            if (board.singleMovesList().size() > 1) {
+                assertTrue(strategy.getPlayouts() > 0);
+                assertTrue(strategy.getTreeSize() > 1);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MctsStrategy(100, 0, MctsStrategy.TREE_PARALLEL, 7));
+    }
+
+    @Test
+    void testInterruptJoinsHelpers() {
+        MctsStrategy strategy = new MctsStrategy(200, 4, MctsStrategy.TREE_PARALLEL, 7);
+        Board copy = board.deepCopy();
+        for (int i = 0; i < 5; i++) {
+            Thread.currentThread().interrupt();
+            strategy.determineSingleMove(board);
+
+            // the search ends at once, the interrupt stays set and no helper is left running
+            assertTrue(Thread.interrupted());
+            assertEquals(0, Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().startsWith("mcts-") && thread.isAlive()).count());
+
+            // so the next search has the engines to itself
+            int move = strategy.determineSingleMove(board);
+            assertEquals(copy, board);
+            if (board.singleMovePossible()) {
+                assertTrue(board.singleMoveValid(move));
+            }
+        }
+    }
+
+    @Test
+    void testDoubleMove() {
+        for (int y = 0; y < Board.DIM; y++) {
+            for (int x = 0; x < Board.DIM; x++) {
+                board.setTile(x, y, 0);
+            }
+        }
+        board.setTile(0, 0, 6);
+        board.setTile(6, 6, 6);
+
+        MctsStrategy strategy = new MctsStrategy(100, 7);
+        int[] moves = strategy.determineDoubleMove(board);
+        assertTrue(board.doubleMoveValid(moves[0], moves[1]));
+    }
+}
@@ -0,0 +1,100 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Strategies;
+
+import Board.Board;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static Strategies.StrategyAssertions.BOUND;
+import static Strategies.StrategyAssertions.playValid;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioStrategyTest {
+
+    private Board board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new Board();
+        board.initBoard(5);
+    }
+
+    @Test
+    void testTrustedComponentWins() {
+        PortfolioStrategy portfolio = new PortfolioStrategy(5000, new SmartStrategy(), new NaiveStrategy());
+        Board copy = board.deepCopy();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(playValid(board, portfolio));
+        }
+        assertEquals(copy, board);
+        assertEquals(0, portfolio.getLastWinner());
+        assertEquals(3, portfolio.getWins(0));
+        assertEquals(0, portfolio.getWins(1));
+        assertEquals(0, portfolio.getMisses(0));
+        assertEquals(3, portfolio.getLatencies(0).getTotal());
+        portfolio.shutdown();
+    }
+
+    @Test
+    void testSlowComponentIsCancelled() {
+        AlphaBetaStrategy slow = new AlphaBetaStrategy(60_000, 1, 16);
+        PortfolioStrategy portfolio = new PortfolioStrategy(200, slow, new SmartStrategy());
+
+        assertTrue(assertTimeout(BOUND, () -> playValid(board, portfolio)));
+
+        assertEquals(1, portfolio.getLastWinner());
+        assertEquals(1, portfolio.getMisses(0));
+        assertEquals(0, portfolio.getLatencies(0).getTotal());
+        assertEquals(1, portfolio.getLatencies(1).getTotal());
+        assertTrue(portfolio.report().contains("Smart"));
+
+        // the cancelled search lets go of its thread, so the next turn is in time as well
+        assertTrue(assertTimeout(BOUND, () -> playValid(board, portfolio)));
+        assertEquals(1, portfolio.getLastWinner());
+        assertEquals(2, portfolio.getWins(1));
+        assertEquals(2, portfolio.getMisses(0));
+        portfolio.shutdown();
+    }
+
+    @Test
+    void testProgressListener() {
+        PortfolioStrategy portfolio = new PortfolioStrategy(5000, new AlphaBetaStrategy(200, 1, 16));
+        AtomicInteger deepest = new AtomicInteger();
+        portfolio.setProgressListener((turn, depth) -> deepest.accumulateAndGet(depth, Math::max));
+        assertTrue(playValid(board, portfolio));
+        assertTrue(deepest.get() >= 1);
+
+        portfolio.setProgressListener(null);
+        deepest.set(0);
+        assertTrue(playValid(board, portfolio));
+        assertEquals(0, deepest.get());
+        portfolio.shutdown();
+    }
+
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentileMillis(0.5));
+        histogram.record(300_000);
+        histogram.record(3_000_000);
+        histogram.record(3_500_000);
+        histogram.record(700_000_000);
+
+        assertEquals(4, histogram.getTotal());
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(2, histogram.getCount(2));
+        assertEquals(4, histogram.percentileMillis(0.5));
+        assertEquals(1024, histogram.percentileMillis(0.99));
+        assertEquals("<1 ms: 1, <4 ms: 2, <1024 ms: 1", histogram.toString());
+        histogram.clear();
+        assertEquals(0, histogram.getTotal());
+    }
+}
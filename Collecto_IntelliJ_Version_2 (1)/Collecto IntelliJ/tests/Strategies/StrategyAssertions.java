@@ -0,0 +1,56 @@
+// File: Board.java#
+//
+// Authors:  German Savchenko
+//           Filip Ivanov
+//
+//
+
+package Strategies;
+
+import Board.Board;
+import Board.MoveSets;
+
+import java.time.Duration;
+
+/**
+ * Checks shared by the tests of the strategies and of the players searching in the background.
+ */
+
+public class StrategyAssertions {
+
+    /**
+     * The time a search that should stop may take, generous for a loaded machine. The slow searches
+     * of the tests have a budget of a minute, so one that does not stop still exceeds it.
+     */
+    public static final Duration BOUND = Duration.ofSeconds(10);
+
+    /**
+     * This method checks whether a turn, encoded as in MoveSets, can be played on a board.
+     *
+     * @param board the position
+     * @param turn  the single move or pair
+     * @return True if the turn is a valid single or double move
+     */
+
+    public static boolean valid(Board board, int turn) {
+        return MoveSets.isPair(turn)
+                ? board.doubleMoveValid(MoveSets.first(turn), MoveSets.second(turn))
+                : board.singleMoveValid(turn);
+    }
+
+    /**
+     * This method asks a strategy for the turn of a board, a single move if there is one.
+     *
+     * @param board    the position
+     * @param strategy the strategy
+     * @return True if the strategy answered with a valid turn
+     */
+
+    public static boolean playValid(Board board, Strategy strategy) {
+        if (board.singleMovePossible()) {
+            return board.singleMoveValid(strategy.determineSingleMove(board));
+        }
+        int[] moves = strategy.determineDoubleMove(board);
+        return board.doubleMoveValid(moves[0], moves[1]);
+    }
+}